@@ -0,0 +1,17 @@
+package com.blog.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a tool endpoint whose successful response is a file (a byte[] or
+ * TempFileResource body), so ConversionCacheInterceptor may answer it from
+ * the conversion cache and ConversionCacheAdvice stores its result. Other
+ * endpoints are neither keyed nor counted in the cache statistics.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedConversion {
+}
@@ -0,0 +1,68 @@
+package com.blog.backend.config;
+
+import com.blog.backend.service.ConversionCacheService;
+import com.blog.backend.service.TempFileResource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+/**
+ * Stores successful binary tool responses (byte[] or TempFileResource) in the
+ * conversion cache, for requests ConversionCacheInterceptor marked as misses.
+ */
+@ControllerAdvice
+public class ConversionCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private ConversionCacheService conversionCacheService;
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return ByteArrayHttpMessageConverter.class.isAssignableFrom(converterType)
+                || ResourceHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+            @NonNull MediaType selectedContentType,
+            @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse))
+            return body;
+
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        HttpServletResponse httpResponse = servletResponse.getServletResponse();
+        Object key = httpRequest.getAttribute(ConversionCacheInterceptor.CACHE_KEY_ATTRIBUTE);
+        if (key == null || httpResponse.getStatus() != HttpServletResponse.SC_OK)
+            return body;
+
+        String contentDisposition = response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
+        Map<String, String> reportHeaders = ConversionCacheService.reportHeaders(response.getHeaders());
+        if (body instanceof byte[] bytes) {
+            conversionCacheService.store((String) key, bytes, selectedContentType.toString(), contentDisposition,
+                    reportHeaders);
+        } else if (body instanceof TempFileResource file) {
+            // Copied before the converter streams the file out and deletes it
+            conversionCacheService.store((String) key, file.getFile().toPath(), selectedContentType.toString(),
+                    contentDisposition, reportHeaders);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,44 @@
+package com.blog.backend.config;
+
+import com.blog.backend.service.ConversionCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Answers tool conversions from ConversionCacheService when the same input
+ * and parameters were converted before. Only @CachedConversion handlers are
+ * looked at. On a miss the cache key is left on the request so
+ * ConversionCacheAdvice can store the result.
+ */
+@Component
+public class ConversionCacheInterceptor implements HandlerInterceptor {
+
+    static final String CACHE_KEY_ATTRIBUTE = ConversionCacheInterceptor.class.getName() + ".key";
+
+    @Autowired
+    private ConversionCacheService conversionCacheService;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) throws IOException {
+        if (!conversionCacheService.isEnabled() || !"POST".equals(request.getMethod())
+                || !(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CachedConversion.class))
+            return true;
+
+        String key = conversionCacheService.key(request);
+        ConversionCacheService.CachedResult cached = conversionCacheService.lookup(key);
+        if (cached != null) {
+            conversionCacheService.serve(cached, request, response);
+            return false;
+        }
+        request.setAttribute(CACHE_KEY_ATTRIBUTE, key);
+        return true;
+    }
+}
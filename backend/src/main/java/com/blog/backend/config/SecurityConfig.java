@@ -1,6 +1,7 @@
 package com.blog.backend.config;
 
 import com.blog.backend.security.JwtAuthenticationFilter;
+import com.blog.backend.security.PublicRateLimitFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +28,9 @@ public class SecurityConfig {
         @Autowired
         private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+        @Autowired
+        private PublicRateLimitFilter publicRateLimitFilter;
+
         @Bean
         public PasswordEncoder passwordEncoder() {
                 return new BCryptPasswordEncoder();
@@ -116,7 +120,9 @@ public class SecurityConfig {
                                                                                                     // users
                                                 .requestMatchers("/api/comments/admin/**").hasAuthority("ADMIN")
                                                 .anyRequest().permitAll())
-                                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                                // Throttle public endpoints before any token parsing happens
+                                .addFilterBefore(publicRateLimitFilter, JwtAuthenticationFilter.class);
 
                 // For H2 console
                 http.headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()));
@@ -2,13 +2,13 @@ package com.blog.backend.controller;
 
 import com.blog.backend.dto.UpdateUserProfileRequest;
 import com.blog.backend.dto.UserDTO;
-import com.blog.backend.model.Role;
+import com.blog.backend.model.Capability;
 import com.blog.backend.model.User;
 import com.blog.backend.repository.UserRepository;
+import com.blog.backend.security.RequiresCapability;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -26,17 +26,8 @@ public class AdminUserController {
 
     // Get all users
     @GetMapping
-    public ResponseEntity<?> getAllUsers(Authentication authentication) {
-        // Check if admin
-        User currentUser = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (currentUser.getRole() != Role.ADMIN) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Admin access required");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_USERS, message = "Admin access required")
+    public ResponseEntity<?> getAllUsers() {
         List<UserDTO> users = userRepository.findAll().stream()
                 .map(user -> new UserDTO(
                         user.getId(),
@@ -54,17 +45,8 @@ public class AdminUserController {
 
     // Get specific user
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUser(@PathVariable Long id, Authentication authentication) {
-        // Check if admin
-        User currentUser = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (currentUser.getRole() != Role.ADMIN) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Admin access required");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_USERS, message = "Admin access required")
+    public ResponseEntity<?> getUser(@PathVariable Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -83,20 +65,10 @@ public class AdminUserController {
 
     // Update user profile (admin can edit anyone)
     @PutMapping("/{id}")
+    @RequiresCapability(value = Capability.MANAGE_USERS, message = "Admin access required")
     public ResponseEntity<?> updateUser(
             @PathVariable Long id,
-            @RequestBody UpdateUserProfileRequest request,
-            Authentication authentication) {
-
-        // Check if admin
-        User currentUser = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (currentUser.getRole() != Role.ADMIN) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Admin access required");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
-        }
+            @RequestBody UpdateUserProfileRequest request) {
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -1,23 +1,35 @@
 package com.blog.backend.controller;
 
 import com.blog.backend.dto.*;
+import com.blog.backend.model.Capability;
 import com.blog.backend.model.Role;
 import com.blog.backend.model.User;
 import com.blog.backend.repository.UserRepository;
+import com.blog.backend.security.CurrentUser;
 import com.blog.backend.security.JwtUtil;
+import com.blog.backend.security.LoginRateLimiter;
 import com.blog.backend.service.GoogleAuthService;
+import com.blog.backend.service.PasswordHashingService;
+import com.blog.backend.service.PermissionService;
+import com.blog.backend.service.TokenRevocationService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -27,36 +39,69 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private GoogleAuthService googleAuthService;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    // Spring MVC's async executor. The hashing pool is sized for CPU-bound
+    // bcrypt only, so the database and JWT work after a hash continues here.
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        // The real client address: forwarded headers from trusted proxies are applied by Tomcat
+        long retryAfter = loginRateLimiter.acquireForIp(httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(tooManyAttempts(retryAfter));
+        }
+
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Email already registered");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
         }
 
         // Check if displayName already exists
         if (userRepository.existsByDisplayName(request.getDisplayName())) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Display name already taken");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
         }
 
+        // Hash on the password pool; the request thread is released meanwhile
+        try {
+            return passwordHashingService.encode(request.getPassword())
+                    .thenApplyAsync(encodedPassword -> createAccount(request, encodedPassword),
+                            applicationTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(serverBusy());
+        }
+    }
+
+    private ResponseEntity<?> createAccount(RegisterRequest request, String encodedPassword) {
         // Create new user
         User user = new User();
         user.setEmail(request.getEmail());
         user.setDisplayName(request.getDisplayName());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(encodedPassword);
         user.setRole(Role.VIEWER); // Default role for new users
         user.setActive(true);
 
@@ -80,13 +125,24 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        // Throttle per client and per account before any hashing happens; the
+        // client address has forwarded headers from trusted proxies applied
+        long retryAfter = loginRateLimiter.acquireForIp(httpRequest.getRemoteAddr());
+        if (retryAfter == 0) {
+            retryAfter = loginRateLimiter.acquireForAccount(request.getEmail());
+        }
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(tooManyAttempts(retryAfter));
+        }
+
         Optional<User> userOpt = userRepository.findByEmail(request.getEmail());
 
         if (userOpt.isEmpty()) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Invalid email or password");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error));
         }
 
         User user = userOpt.get();
@@ -95,16 +151,20 @@ public class AuthController {
         if (!user.getActive()) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Account is disabled");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(error));
         }
 
-        // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Invalid email or password");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        // Verify password on the password pool
+        try {
+            return passwordHashingService.matches(request.getPassword(), user.getPassword())
+                    .thenApplyAsync(matches -> matches ? loginSucceeded(user) : invalidCredentials(),
+                            applicationTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(serverBusy());
         }
+    }
 
+    private ResponseEntity<?> loginSucceeded(User user) {
         // Generate new token
         String newToken = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
 
@@ -122,10 +182,68 @@ public class AuthController {
         return ResponseEntity.ok(new AuthResponse(newToken, userDTO));
     }
 
+    private ResponseEntity<?> invalidCredentials() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid email or password");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
+    private ResponseEntity<?> tooManyAttempts(long retryAfterSeconds) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Too many attempts, please try again later");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error);
+    }
+
+    private ResponseEntity<?> serverBusy() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Server is busy, please try again");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // Revoke the token this request was made with
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String header) {
+        if (header != null && header.startsWith("Bearer ")) {
+            String token = header.substring(7);
+            Claims claims = jwtUtil.parseToken(token);
+            if (claims != null) {
+                tokenRevocationService.revoke(jwtUtil.revocationId(token, claims), claims);
+            }
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
+    // Revoke one of the caller's tokens (admins may revoke anyone's)
+    @PostMapping("/revoke")
+    public ResponseEntity<?> revokeToken(@RequestBody Map<String, String> request, @CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Authentication required"));
+        }
+
+        String token = request.get("token");
+        Claims claims = jwtUtil.parseToken(token);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid, expired or already revoked token"));
+        }
+
+        if (!user.getEmail().equals(claims.getSubject()) &&
+                !permissionService.has(user, Capability.REVOKE_ANY_TOKEN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "You can only revoke your own tokens"));
+        }
+
+        tokenRevocationService.revoke(jwtUtil.revocationId(token, claims), claims);
+        return ResponseEntity.ok(Map.of("message", "Token revoked"));
+    }
+
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElse(null);
+    public ResponseEntity<?> getCurrentUser(@CurrentUser User user) {
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
@@ -171,7 +289,10 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
 
-        User user = (User) authentication.getPrincipal();
+        // The principal is shared through the principal cache; edit a fresh copy
+        User principal = (User) authentication.getPrincipal();
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
         // Update display name
         user.setDisplayName(newUsername);
         User updatedUser = userRepository.save(user);
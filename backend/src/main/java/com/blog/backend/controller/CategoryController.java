@@ -1,15 +1,14 @@
 package com.blog.backend.controller;
 
 import com.blog.backend.dto.CategoryDTO;
+import com.blog.backend.model.Capability;
 import com.blog.backend.model.Category;
-import com.blog.backend.model.Role;
-import com.blog.backend.model.User;
 import com.blog.backend.repository.CategoryRepository;
 import com.blog.backend.repository.PostRepository;
+import com.blog.backend.security.RequiresCapability;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -67,20 +66,11 @@ public class CategoryController {
         return ResponseEntity.ok(dto);
     }
 
-    // Create category (ADMIN only)
+    // Create category (ADMIN/EDITOR only)
     @PostMapping
-    public ResponseEntity<?> createCategory(@RequestBody Category category, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        User currentUser = (User) authentication.getPrincipal();
-        if (currentUser.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only admins can create categories"));
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_CATEGORIES,
+            message = "Only admins and editors can create categories")
+    public ResponseEntity<?> createCategory(@RequestBody Category category) {
         // Auto-generate slug if not provided
         if (category.getSlug() == null || category.getSlug().isEmpty()) {
             category.setSlug(generateSlug(category.getName()));
@@ -96,21 +86,12 @@ public class CategoryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedCategory);
     }
 
-    // Update category (ADMIN only)
+    // Update category (ADMIN/EDITOR only)
     @PutMapping("/{id}")
+    @RequiresCapability(value = Capability.MANAGE_CATEGORIES,
+            message = "Only admins and editors can update categories")
     public ResponseEntity<?> updateCategory(@PathVariable Long id,
-            @RequestBody Category categoryUpdate, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        User currentUser = (User) authentication.getPrincipal();
-        if (currentUser.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only admins can update categories"));
-        }
-
+            @RequestBody Category categoryUpdate) {
         Optional<Category> categoryOpt = categoryRepository.findById(id);
         if (categoryOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -139,20 +120,11 @@ public class CategoryController {
         return ResponseEntity.ok(updatedCategory);
     }
 
-    // Delete category (ADMIN only)
+    // Delete category (ADMIN/EDITOR only)
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteCategory(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        User currentUser = (User) authentication.getPrincipal();
-        if (currentUser.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only admins can delete categories"));
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_CATEGORIES,
+            message = "Only admins and editors can delete categories")
+    public ResponseEntity<?> deleteCategory(@PathVariable Long id) {
         if (!categoryRepository.existsById(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "Category not found"));
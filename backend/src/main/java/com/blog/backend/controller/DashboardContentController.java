@@ -1,14 +1,15 @@
 package com.blog.backend.controller;
 
+import com.blog.backend.model.Capability;
 import com.blog.backend.model.Post;
 import com.blog.backend.model.PostStatus;
 import com.blog.backend.model.PostRevision;
 import com.blog.backend.model.RevisionStatus;
 import com.blog.backend.model.User;
-import com.blog.backend.model.Role;
 import com.blog.backend.repository.PostRepository;
 import com.blog.backend.repository.PostRevisionRepository;
 import com.blog.backend.repository.UserRepository;
+import com.blog.backend.security.RequiresCapability;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -46,8 +47,11 @@ public class DashboardContentController {
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new RuntimeException("User not authenticated");
         }
-        return userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Already resolved by the JWT filter from the principal cache
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        throw new RuntimeException("User not found");
     }
 
     /**
@@ -77,19 +81,10 @@ public class DashboardContentController {
      * Get all pending revisions (for Editors and Admins)
      */
     @GetMapping("/pending-revisions")
+    @RequiresCapability(value = Capability.PUBLISH_POST,
+            message = "Only Editors and Admins can view all pending revisions")
     public ResponseEntity<?> getPendingRevisions() {
         try {
-            User currentUser = getCurrentUser();
-
-            // Check if user is Editor or Admin
-            boolean isEditorOrAdmin = currentUser.getRole() == Role.EDITOR ||
-                    currentUser.getRole() == Role.ADMIN;
-
-            if (!isEditorOrAdmin) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("error", "Only Editors and Admins can view all pending revisions"));
-            }
-
             List<PostRevision> pendingRevisions = postRevisionRepository
                     .findByStatus(RevisionStatus.PENDING_REVIEW);
 
@@ -146,6 +141,7 @@ public class DashboardContentController {
      * Advanced filtering and search
      */
     @GetMapping("/all-content")
+    @RequiresCapability(value = Capability.PUBLISH_POST, message = "Only Editors and Admins can view all content")
     public ResponseEntity<?> getAllContent(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Long authorId,
@@ -153,17 +149,6 @@ public class DashboardContentController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            User currentUser = getCurrentUser();
-
-            // Check if user is Editor or Admin
-            boolean isEditorOrAdmin = currentUser.getRole() == Role.EDITOR ||
-                    currentUser.getRole() == Role.ADMIN;
-
-            if (!isEditorOrAdmin) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("error", "Only Editors and Admins can view all content"));
-            }
-
             Pageable pageable = PageRequest.of(page, size, Sort.by("updatedAt").descending());
             Page<Post> posts;
 
@@ -3,7 +3,8 @@ package com.blog.backend.controller;
 import com.blog.backend.model.*;
 import com.blog.backend.repository.PostDeletionRequestRepository;
 import com.blog.backend.repository.PostRepository;
-import com.blog.backend.repository.UserRepository;
+import com.blog.backend.security.CurrentUser;
+import com.blog.backend.security.RequiresCapability;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,29 +27,11 @@ public class DeletionRequestController {
     @Autowired
     private PostRepository postRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     // Get all pending deletion requests (ADMIN/EDITOR only)
     @GetMapping
-    public ResponseEntity<?> getPendingRequests(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "User not found"));
-        }
-
-        User user = userOpt.get();
-        if (user.getRole() != Role.ADMIN && user.getRole() != Role.EDITOR) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only administrators and editors can view deletion requests"));
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_DELETION_REQUESTS,
+            message = "Only administrators and editors can view deletion requests")
+    public ResponseEntity<?> getPendingRequests() {
         List<PostDeletionRequest> requests = deletionRequestRepository
                 .findByStatusOrderByCreatedAtDesc(DeletionRequestStatus.PENDING);
 
@@ -63,19 +46,16 @@ public class DeletionRequestController {
 
     // Get current user's deletion requests for feedback
     @GetMapping("/my-requests")
-    public ResponseEntity<?> getMyRequests(Authentication authentication) {
+    public ResponseEntity<?> getMyRequests(Authentication authentication, @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-
-        User user = userOpt.get();
         List<PostDeletionRequest> requests = deletionRequestRepository
                 .findByRequestedByIdOrderByCreatedAtDesc(user.getId());
 
@@ -84,24 +64,9 @@ public class DeletionRequestController {
 
     // Approve deletion request and delete the post
     @PostMapping("/{id}/approve")
-    public ResponseEntity<?> approveDeletion(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "User not found"));
-        }
-
-        User user = userOpt.get();
-        if (user.getRole() != Role.ADMIN && user.getRole() != Role.EDITOR) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only administrators and editors can approve deletion requests"));
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_DELETION_REQUESTS,
+            message = "Only administrators and editors can approve deletion requests")
+    public ResponseEntity<?> approveDeletion(@PathVariable Long id, @CurrentUser User user) {
         Optional<PostDeletionRequest> requestOpt = deletionRequestRepository.findById(id);
         if (requestOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -133,24 +98,9 @@ public class DeletionRequestController {
 
     // Deny deletion request
     @PostMapping("/{id}/deny")
-    public ResponseEntity<?> denyDeletion(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "User not found"));
-        }
-
-        User user = userOpt.get();
-        if (user.getRole() != Role.ADMIN && user.getRole() != Role.EDITOR) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only administrators and editors can deny deletion requests"));
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_DELETION_REQUESTS,
+            message = "Only administrators and editors can deny deletion requests")
+    public ResponseEntity<?> denyDeletion(@PathVariable Long id, @CurrentUser User user) {
         Optional<PostDeletionRequest> requestOpt = deletionRequestRepository.findById(id);
         if (requestOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -1,33 +1,109 @@
 package com.blog.backend.controller;
 
+import com.blog.backend.config.CachedConversion;
+import com.blog.backend.service.SpreadsheetStreamService;
+import com.blog.backend.service.TempFileResource;
+import com.blog.backend.service.TempFiles;
+import com.blog.backend.service.XlsxOptimizerService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.CellReference;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.util.Iterator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tools/excel")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = { "X-Original-Size", "X-Compressed-Size", "X-Styles-Removed",
+        "X-Fonts-Removed", "X-Strings-Removed", "X-Rows-Removed", "X-Images-Recompressed" })
 public class ExcelToolsController {
 
+    @Autowired
+    private SpreadsheetStreamService spreadsheetStreamService;
+
+    @Autowired
+    private XlsxOptimizerService xlsxOptimizerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/compress")
-    public ResponseEntity<?> compressExcel(@RequestParam("file") MultipartFile file) {
+    @CachedConversion
+    public ResponseEntity<?> compressExcel(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "quality", defaultValue = "0.8") float quality) {
+        if (quality < 0.1f || quality > 1f) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Quality must be between 0.1 and 1"));
+        }
+
+        File source = null;
+        File target = null;
         try {
-            InputStream inputStream = file.getInputStream();
-            Workbook workbook = WorkbookFactory.create(inputStream);
+            source = TempFiles.copyOf(file, "excel-", ".tmp");
+            if (FileMagic.valueOf(source) != FileMagic.OOXML) {
+                return compressLegacyExcel(source);
+            }
+
+            target = File.createTempFile("excel-compressed-", ".xlsx");
+            XlsxOptimizerService.Report report = xlsxOptimizerService.optimize(source, target, quality);
+
+            // Never hand back a bigger file than we were given
+            boolean improved = report.optimizedSize < report.originalSize;
+            byte[] compressedData = Files.readAllBytes(improved ? target.toPath() : source.toPath());
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(
+                    MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+            headers.setContentDispositionFormData("attachment", "compressed.xlsx");
+            headers.set("X-Original-Size", String.valueOf(report.originalSize));
+            headers.set("X-Compressed-Size", String.valueOf(compressedData.length));
+            headers.set("X-Styles-Removed", String.valueOf(report.stylesRemoved));
+            headers.set("X-Fonts-Removed", String.valueOf(report.fontsRemoved));
+            headers.set("X-Strings-Removed", String.valueOf(report.sharedStringsRemoved));
+            headers.set("X-Rows-Removed", String.valueOf(report.rowsRemoved));
+            headers.set("X-Images-Recompressed", String.valueOf(report.imagesRecompressed));
 
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(compressedData);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error compressing Excel: " + e.getMessage());
+        } finally {
+            if (source != null)
+                source.delete();
+            if (target != null)
+                target.delete();
+        }
+    }
+
+    /**
+     * .xls files are binary, not a ZIP of XML parts; drop empty sheets and
+     * re-save them as before.
+     */
+    private ResponseEntity<?> compressLegacyExcel(File source) throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(source, null, true)) {
             // Remove unused sheets and optimize
             int totalSheets = workbook.getNumberOfSheets();
             for (int i = totalSheets - 1; i >= 0; i--) {
@@ -39,117 +115,261 @@ public class ExcelToolsController {
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            workbook.close();
 
-            byte[] compressedData = outputStream.toByteArray();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType("application/vnd.ms-excel"));
+            headers.setContentDispositionFormData("attachment", "compressed.xls");
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(outputStream.toByteArray());
+        }
+    }
+
+    @PostMapping("/to-pdf")
+    @CachedConversion
+    public ResponseEntity<?> excelToPDF(@RequestParam("file") MultipartFile file) {
+        File source = null;
+        File target = null;
+        // Page content goes to a scratch file, so only the rows being laid out are in heap
+        try (PDDocument pdf = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            source = TempFiles.copyOf(file, "excel-", ".tmp");
+            try (PdfSheetWriter writer = new PdfSheetWriter(pdf)) {
+                spreadsheetStreamService.read(source, null, writer);
+            }
+
+            // The PDF is streamed to the client from this file, which is deleted once it has been sent
+            target = File.createTempFile("excel-pdf-", ".pdf");
+            pdf.save(target);
 
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(
-                    MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "compressed.xlsx");
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", "converted.pdf");
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(compressedData);
+                    .body(new TempFileResource(target));
 
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error compressing Excel: " + e.getMessage());
+            if (target != null)
+                target.delete();
+            return ResponseEntity.badRequest().body("Error converting Excel to PDF: " + e.getMessage());
+        } finally {
+            if (source != null)
+                source.delete();
         }
     }
 
-    @PostMapping("/to-pdf")
-    public ResponseEntity<?> excelToPDF(@RequestParam("file") MultipartFile file) {
+    @PostMapping("/to-csv")
+    public ResponseEntity<StreamingResponseBody> excelToCSV(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "sheet", required = false) String sheet) {
+        return export(file, sheet, "text/csv", "csv", CsvRowWriter::new);
+    }
+
+    @PostMapping("/to-ndjson")
+    public ResponseEntity<StreamingResponseBody> excelToNDJSON(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "sheet", required = false) String sheet) {
+        return export(file, sheet, "application/x-ndjson", "ndjson",
+                out -> new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out)));
+    }
+
+    /**
+     * Stream one sheet (the first unless named) through a row writer. The
+     * upload is checked before streaming starts so a bad file still gets a 400.
+     */
+    private ResponseEntity<StreamingResponseBody> export(MultipartFile file, String sheet, String contentType,
+            String extension, RowWriterFactory writerFactory) {
+        File source;
         try {
-            InputStream inputStream = file.getInputStream();
-            Workbook workbook = WorkbookFactory.create(inputStream);
-            PDDocument pdf = new PDDocument();
+            source = TempFiles.copyOf(file, "excel-", ".tmp");
+        } catch (IOException e) {
+            // Errors are thrown: the streaming return type can't carry a JSON error body
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to store upload: " + e.getMessage());
+        }
 
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                PDPage page = new PDPage(PDRectangle.A4);
-                pdf.addPage(page);
+        int sheetIndex;
+        try {
+            List<String> names = spreadsheetStreamService.sheetNames(source);
+            sheetIndex = sheet == null || sheet.isBlank() ? 0 : names.indexOf(sheet);
+            if (names.isEmpty() || sheetIndex < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        names.isEmpty() ? "Workbook has no sheets" : "No sheet named " + sheet);
+            }
+        } catch (IOException | RuntimeException e) {
+            source.delete();
+            throw e instanceof ResponseStatusException status ? status
+                    : new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a readable spreadsheet");
+        }
 
-                PDPageContentStream contentStream = new PDPageContentStream(pdf, page);
-                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 12);
+        StreamingResponseBody body = out -> {
+            try (RowWriter writer = writerFactory.create(StreamUtils.nonClosing(out))) {
+                spreadsheetStreamService.read(source, sheetIndex, writer);
+            } finally {
+                source.delete();
+            }
+        };
 
-                float yPosition = 750;
-                float margin = 50;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType + ";charset=UTF-8"));
+        headers.setContentDispositionFormData("attachment", "export." + extension);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
-                contentStream.beginText();
-                contentStream.newLineAtOffset(margin, yPosition);
-                contentStream.showText("Sheet: " + sheet.getSheetName());
-                contentStream.endText();
-                yPosition -= 20;
+    private interface RowWriter extends SpreadsheetStreamService.RowHandler, Closeable {
+    }
 
-                contentStream.setFont(PDType1Font.HELVETICA, 10);
+    @FunctionalInterface
+    private interface RowWriterFactory {
+        RowWriter create(OutputStream out) throws IOException;
+    }
 
-                Iterator<Row> rowIterator = sheet.rowIterator();
-                while (rowIterator.hasNext()) {
-                    Row row = rowIterator.next();
-                    Iterator<Cell> cellIterator = row.cellIterator();
-
-                    float xPosition = margin;
-
-                    if (yPosition < 50) {
-                        contentStream.close();
-                        page = new PDPage(PDRectangle.A4);
-                        pdf.addPage(page);
-                        contentStream = new PDPageContentStream(pdf, page);
-                        contentStream.setFont(PDType1Font.HELVETICA, 10);
-                        yPosition = 750;
-                    }
-
-                    while (cellIterator.hasNext()) {
-                        Cell cell = cellIterator.next();
-                        String cellValue = "";
-
-                        switch (cell.getCellType()) {
-                            case STRING:
-                                cellValue = cell.getStringCellValue();
-                                break;
-                            case NUMERIC:
-                                cellValue = String.valueOf(cell.getNumericCellValue());
-                                break;
-                            case BOOLEAN:
-                                cellValue = String.valueOf(cell.getBooleanCellValue());
-                                break;
-                            default:
-                                cellValue = "";
-                        }
-
-                        if (!cellValue.isEmpty()) {
-                            contentStream.beginText();
-                            contentStream.newLineAtOffset(xPosition, yPosition);
-                            // Sanitize text
-                            String cleanText = cellValue.replaceAll("[^\\x20-\\x7E]", "");
-                            // Truncate if too long to prevent overwrite
-                            if (cleanText.length() > 20)
-                                cleanText = cleanText.substring(0, 17) + "...";
-                            contentStream.showText(cleanText);
-                            contentStream.endText();
-                        }
-                        xPosition += 100; // Fixed column width
-                    }
-                    yPosition -= 15;
+    /**
+     * Writes rows as RFC 4180 CSV.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void row(int rowNum, List<String> cells) throws IOException {
+            for (int i = 0; i < cells.size(); i++) {
+                if (i > 0)
+                    writer.write(',');
+                String value = cells.get(i);
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                        || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
                 }
-                contentStream.close();
             }
+            writer.write("\r\n");
+        }
 
-            workbook.close();
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            pdf.save(outputStream);
-            pdf.close();
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "converted.pdf");
+    /**
+     * Writes one JSON object per row, keyed by the sheet's first row. Columns
+     * with a blank or repeated header are keyed by their column letter.
+     */
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private List<String> header;
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(outputStream.toByteArray());
+        NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            // Rows are separated by newlines, not the default space
+            generator.setRootValueSeparator(null);
+        }
 
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error converting Excel to PDF: " + e.getMessage());
+        @Override
+        public void row(int rowNum, List<String> cells) throws IOException {
+            if (header == null) {
+                header = new ArrayList<>(cells.size());
+                for (int i = 0; i < cells.size(); i++) {
+                    String name = cells.get(i).trim();
+                    header.add(name.isEmpty() || header.contains(name) ? CellReference.convertNumToColString(i) : name);
+                }
+                return;
+            }
+            generator.writeStartObject();
+            for (int i = 0; i < cells.size(); i++) {
+                String name = i < header.size() ? header.get(i) : CellReference.convertNumToColString(i);
+                generator.writeStringField(name, cells.get(i));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * Lays rows out on A4 pages: a heading per sheet, then one line per row
+     * with fixed-width columns, starting a new page when the current one is
+     * full.
+     */
+    private static final class PdfSheetWriter implements SpreadsheetStreamService.RowHandler, Closeable {
+        private static final float MARGIN = 50;
+        private static final float TOP = 750;
+        private static final float COLUMN_WIDTH = 100;
+
+        private final PDDocument pdf;
+        private PDPageContentStream contentStream;
+        private float yPosition;
+
+        PdfSheetWriter(PDDocument pdf) {
+            this.pdf = pdf;
+        }
+
+        @Override
+        public void startSheet(String name) throws IOException {
+            newPage();
+            contentStream.setFont(PDType1Font.HELVETICA_BOLD, 12);
+            contentStream.beginText();
+            contentStream.newLineAtOffset(MARGIN, yPosition);
+            contentStream.showText("Sheet: " + sanitize(name));
+            contentStream.endText();
+            yPosition -= 20;
+            contentStream.setFont(PDType1Font.HELVETICA, 10);
+        }
+
+        @Override
+        public void row(int rowNum, List<String> cells) throws IOException {
+            if (yPosition < 50) {
+                newPage();
+                contentStream.setFont(PDType1Font.HELVETICA, 10);
+            }
+
+            float xPosition = MARGIN;
+            for (String cellValue : cells) {
+                // Sanitize text
+                String cleanText = sanitize(cellValue);
+                if (!cleanText.isEmpty()) {
+                    // Truncate if too long to prevent overwrite
+                    if (cleanText.length() > 20)
+                        cleanText = cleanText.substring(0, 17) + "...";
+                    contentStream.beginText();
+                    contentStream.newLineAtOffset(xPosition, yPosition);
+                    contentStream.showText(cleanText);
+                    contentStream.endText();
+                }
+                xPosition += COLUMN_WIDTH; // Fixed column width
+            }
+            yPosition -= 15;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (contentStream != null) {
+                contentStream.close();
+                contentStream = null;
+            }
+        }
+
+        private void newPage() throws IOException {
+            close();
+            PDPage page = new PDPage(PDRectangle.A4);
+            pdf.addPage(page);
+            contentStream = new PDPageContentStream(pdf, page);
+            yPosition = TOP;
+        }
+
+        private static String sanitize(String text) {
+            return text.replaceAll("[^\\x20-\\x7E]", "");
         }
     }
 }
@@ -1,19 +1,30 @@
 package com.blog.backend.controller;
 
+import com.blog.backend.config.CachedConversion;
+import com.blog.backend.dto.ImageOperation;
+import com.blog.backend.service.ImageBatchService;
+import com.blog.backend.service.ImageDecodeService;
+import com.blog.backend.service.ImageResizeService;
+import com.blog.backend.service.ImageTooLargeException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.imageio.ImageIO;
-import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,19 +32,33 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ImageToolsController {
 
+    @Autowired
+    private ImageDecodeService imageDecodeService;
+
+    @Autowired
+    private ImageResizeService imageResizeService;
+
+    @Autowired
+    private ImageBatchService imageBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/convert")
+    @CachedConversion
     public ResponseEntity<?> convertImage(
             @RequestParam("file") MultipartFile file,
             @RequestParam("format") String format) {
 
         try {
             // Read the uploaded image
-            BufferedImage image = ImageIO.read(file.getInputStream());
+            ImageDecodeService.Decoded decoded = imageDecodeService.decode(file.getInputStream());
 
-            if (image == null) {
+            if (decoded == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Invalid image file"));
             }
+            BufferedImage image = decoded.image;
 
             // Convert to requested format
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -60,6 +85,9 @@ public class ImageToolsController {
 
             return new ResponseEntity<>(imageBytes, headers, HttpStatus.OK);
 
+        } catch (ImageTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to convert image: " + e.getMessage()));
@@ -67,57 +95,46 @@ public class ImageToolsController {
     }
 
     @PostMapping("/resize")
+    @CachedConversion
     public ResponseEntity<?> resizeImage(
             @RequestParam("file") MultipartFile file,
             @RequestParam("width") int width,
             @RequestParam("height") int height,
             @RequestParam(value = "maintain", defaultValue = "true") boolean maintainAspectRatio) {
 
+        if (width < 0 || height < 0 || (width == 0 && height == 0)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Width or height must be greater than 0"));
+        }
+
         try {
-            BufferedImage originalImage = ImageIO.read(file.getInputStream());
+            // maintain fits the image inside width x height; otherwise both sides are used as-is.
+            // A side passed as 0 always follows the source aspect ratio.
+            ImageResizeService.Resized resized = imageResizeService.resize(file.getInputStream(), width, height,
+                    maintainAspectRatio);
 
-            if (originalImage == null) {
+            if (resized == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Invalid image file"));
             }
 
-            // Calculate dimensions if maintaining aspect ratio
-            int targetWidth = width;
-            int targetHeight = height;
-
-            if (maintainAspectRatio) {
-                double aspectRatio = (double) originalImage.getWidth() / originalImage.getHeight();
-                if (width > 0 && height == 0) {
-                    targetWidth = width;
-                    targetHeight = (int) (width / aspectRatio);
-                } else if (height > 0 && width == 0) {
-                    targetHeight = height;
-                    targetWidth = (int) (height * aspectRatio);
-                }
-            }
-
-            // Resize image
-            Image scaledImage = originalImage.getScaledInstance(
-                    targetWidth, targetHeight, Image.SCALE_SMOOTH);
-
-            BufferedImage resizedImage = new BufferedImage(
-                    targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+            // Keep transparency: PNG/GIF sources and images with alpha stay PNG, the rest is JPEG
+            boolean png = resized.image.getColorModel().hasAlpha()
+                    || resized.sourceFormat.equals("png") || resized.sourceFormat.equals("gif");
 
-            Graphics2D g2d = resizedImage.createGraphics();
-            g2d.drawImage(scaledImage, 0, 0, null);
-            g2d.dispose();
-
-            // Convert to bytes
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ImageIO.write(resizedImage, "jpg", outputStream);
+            ImageIO.write(resized.image, png ? "png" : "jpg", outputStream);
             byte[] imageBytes = outputStream.toByteArray();
 
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_JPEG);
-            headers.setContentDispositionFormData("attachment", "resized.jpg");
+            headers.setContentType(png ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG);
+            headers.setContentDispositionFormData("attachment", png ? "resized.png" : "resized.jpg");
 
             return new ResponseEntity<>(imageBytes, headers, HttpStatus.OK);
 
+        } catch (ImageTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to resize image: " + e.getMessage()));
@@ -125,17 +142,19 @@ public class ImageToolsController {
     }
 
     @PostMapping("/compress")
+    @CachedConversion
     public ResponseEntity<?> compressImage(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "quality", defaultValue = "0.8") float quality) {
 
         try {
-            BufferedImage image = ImageIO.read(file.getInputStream());
+            ImageDecodeService.Decoded decoded = imageDecodeService.decode(file.getInputStream());
 
-            if (image == null) {
+            if (decoded == null) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Invalid image file"));
             }
+            BufferedImage image = decoded.image;
 
             // Get a JPEG ImageWriter
             javax.imageio.ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
@@ -170,12 +189,46 @@ public class ImageToolsController {
 
             return new ResponseEntity<>(compressedBytes, headers, HttpStatus.OK);
 
+        } catch (ImageTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to compress image: " + e.getMessage()));
         }
     }
 
+    // Apply one operation list to many images (or ZIPs of images); results stream back as a ZIP
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> batchProcess(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "operations", defaultValue = "[]") String operationsJson) {
+
+        // Errors are thrown: the streaming return type can't carry a JSON error body
+        if (files.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No files uploaded");
+        }
+
+        List<ImageOperation> operations;
+        try {
+            operations = objectMapper.readValue(operationsJson, new TypeReference<List<ImageOperation>>() {
+            });
+            imageBatchService.validate(operations);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid operations: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        StreamingResponseBody body = out -> imageBatchService.process(files, operations, out);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "images.zip");
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     @GetMapping("/formats")
     public ResponseEntity<?> getSupportedFormats() {
         Map<String, Object> formats = new HashMap<>();
@@ -1,15 +1,31 @@
 package com.blog.backend.controller;
 
 import com.blog.backend.dto.*;
+import com.blog.backend.event.JobDeletedEvent;
+import com.blog.backend.event.JobSavedEvent;
 import com.blog.backend.model.*;
 import com.blog.backend.repository.*;
+import com.blog.backend.security.CurrentUser;
+import com.blog.backend.service.JobApplicationExportService;
+import com.blog.backend.service.JobApplicationService;
+import com.blog.backend.service.JobRecommendationService;
+import com.blog.backend.service.PermissionService;
+import com.blog.backend.service.SimilarJobsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,13 +41,30 @@ public class JobController {
     private JobApplicationRepository jobApplicationRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private JobApplicationService jobApplicationService;
 
-    // Get all active jobs (public, requires auth)
+    @Autowired
+    private JobRecommendationService jobRecommendationService;
+
+    @Autowired
+    private SimilarJobsService similarJobsService;
+
+    @Autowired
+    private JobApplicationExportService jobApplicationExportService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Get active jobs, keyset-paginated (public, requires auth)
     @GetMapping
     public ResponseEntity<?> getAllJobs(
             @RequestParam(required = false) JobCategory category,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Authentication authentication) {
 
         if (authentication == null) {
@@ -40,21 +73,24 @@ public class JobController {
         }
 
         try {
-            List<Job> jobs;
+            int pageSize = CursorPage.boundedSize(size);
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            PageRequest limit = PageRequest.ofSize(pageSize + 1);
+            List<JobCardResponse> jobs;
 
             if (search != null && !search.trim().isEmpty()) {
-                jobs = jobRepository.searchJobs(search, JobStatus.ACTIVE);
+                jobs = jobRepository.searchCards(search, JobStatus.ACTIVE, after.getTimestamp(), after.getId(), limit);
             } else if (category != null) {
-                jobs = jobRepository.findByCategoryAndStatusOrderByCreatedAtDesc(category, JobStatus.ACTIVE);
+                jobs = jobRepository.findCardsByCategoryAndStatus(category, JobStatus.ACTIVE,
+                        after.getTimestamp(), after.getId(), limit);
             } else {
-                jobs = jobRepository.findByStatusOrderByCreatedAtDesc(JobStatus.ACTIVE);
+                jobs = jobRepository.findCardsByStatus(JobStatus.ACTIVE, after.getTimestamp(), after.getId(), limit);
             }
 
-            List<JobResponse> response = jobs.stream()
-                    .map(job -> JobResponse.fromJob(job, false))
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(CursorPage.of(jobs, pageSize, JobController::jobCursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch jobs: " + e.getMessage()));
@@ -63,7 +99,8 @@ public class JobController {
 
     // Get job by ID
     @GetMapping("/{id}")
-    public ResponseEntity<?> getJobById(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getJobById(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
@@ -77,12 +114,9 @@ public class JobController {
             }
 
             Job job = jobOpt.get();
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-
-            boolean includeEmployerInfo = userOpt.isPresent() &&
-                    (job.getPostedBy().getId().equals(userOpt.get().getId()) ||
-                            userOpt.get().getRole() == Role.ADMIN);
+            boolean includeEmployerInfo = user != null &&
+                    (job.getPostedBy().getId().equals(user.getId()) ||
+                            permissionService.has(user, Capability.MANAGE_ANY_JOB));
 
             JobResponse response = JobResponse.fromJob(job, includeEmployerInfo);
             return ResponseEntity.ok(response);
@@ -95,23 +129,19 @@ public class JobController {
     // Create new job (EMPLOYER only)
     @PostMapping
     public ResponseEntity<?> createJob(@Valid @RequestBody CreateJobRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User not found"));
             }
 
-            User user = userOpt.get();
-
             // Check if user has EMPLOYER role
             if (user.getJobRole() != JobRole.EMPLOYER) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -144,6 +174,7 @@ public class JobController {
             job.setPostedBy(user);
 
             Job savedJob = jobRepository.save(job);
+            eventPublisher.publishEvent(new JobSavedEvent(savedJob));
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(JobResponse.fromJob(savedJob, true));
@@ -157,27 +188,25 @@ public class JobController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateJob(@PathVariable Long id,
             @Valid @RequestBody UpdateJobRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Job> jobOpt = jobRepository.findById(id);
 
-            if (userOpt.isEmpty() || jobOpt.isEmpty()) {
+            if (user == null || jobOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or job not found"));
             }
-
-            User user = userOpt.get();
             Job job = jobOpt.get();
 
             // Check ownership or admin
-            if (!job.getPostedBy().getId().equals(user.getId()) && user.getRole() != Role.ADMIN) {
+            if (!job.getPostedBy().getId().equals(user.getId()) &&
+                    !permissionService.has(user, Capability.MANAGE_ANY_JOB)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You can only edit your own jobs"));
             }
@@ -213,6 +242,7 @@ public class JobController {
                 job.setDeadline(request.getDeadline());
 
             Job updatedJob = jobRepository.save(job);
+            eventPublisher.publishEvent(new JobSavedEvent(updatedJob));
 
             return ResponseEntity.ok(JobResponse.fromJob(updatedJob, true));
         } catch (Exception e) {
@@ -223,32 +253,30 @@ public class JobController {
 
     // Delete job (EMPLOYER, own jobs only)
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteJob(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> deleteJob(@PathVariable Long id, Authentication authentication, @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Job> jobOpt = jobRepository.findById(id);
 
-            if (userOpt.isEmpty() || jobOpt.isEmpty()) {
+            if (user == null || jobOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or job not found"));
             }
-
-            User user = userOpt.get();
             Job job = jobOpt.get();
 
             // Check ownership or admin
-            if (!job.getPostedBy().getId().equals(user.getId()) && user.getRole() != Role.ADMIN) {
+            if (!job.getPostedBy().getId().equals(user.getId()) &&
+                    !permissionService.has(user, Capability.MANAGE_ANY_JOB)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You can only delete your own jobs"));
             }
 
             jobRepository.delete(job);
+            eventPublisher.publishEvent(new JobDeletedEvent(id));
 
             return ResponseEntity.ok(Map.of("message", "Job deleted successfully"));
         } catch (Exception e) {
@@ -259,34 +287,35 @@ public class JobController {
 
     // Get employer's posted jobs
     @GetMapping("/my-jobs")
-    public ResponseEntity<?> getMyJobs(Authentication authentication) {
+    public ResponseEntity<?> getMyJobs(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User not found"));
             }
 
-            User user = userOpt.get();
-
             if (user.getJobRole() != JobRole.EMPLOYER) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Only employers can view their posted jobs"));
             }
 
-            List<Job> jobs = jobRepository.findByPostedByOrderByCreatedAtDesc(user);
-            List<JobResponse> response = jobs.stream()
-                    .map(job -> JobResponse.fromJob(job, true))
-                    .collect(Collectors.toList());
+            int pageSize = CursorPage.boundedSize(size);
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            List<JobCardResponse> jobs = jobRepository.findCardsByPostedBy(user, after.getTimestamp(),
+                    after.getId(), PageRequest.ofSize(pageSize + 1));
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(CursorPage.of(jobs, pageSize, JobController::jobCursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch jobs: " + e.getMessage()));
@@ -295,32 +324,30 @@ public class JobController {
 
     // Close job posting
     @PostMapping("/{id}/close")
-    public ResponseEntity<?> closeJob(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> closeJob(@PathVariable Long id, Authentication authentication, @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Job> jobOpt = jobRepository.findById(id);
 
-            if (userOpt.isEmpty() || jobOpt.isEmpty()) {
+            if (user == null || jobOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or job not found"));
             }
-
-            User user = userOpt.get();
             Job job = jobOpt.get();
 
-            if (!job.getPostedBy().getId().equals(user.getId()) && user.getRole() != Role.ADMIN) {
+            if (!job.getPostedBy().getId().equals(user.getId()) &&
+                    !permissionService.has(user, Capability.MANAGE_ANY_JOB)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You can only close your own jobs"));
             }
 
             job.setStatus(JobStatus.CLOSED);
             Job closedJob = jobRepository.save(job);
+            eventPublisher.publishEvent(new JobSavedEvent(closedJob));
 
             return ResponseEntity.ok(JobResponse.fromJob(closedJob, true));
         } catch (Exception e) {
@@ -329,27 +356,42 @@ public class JobController {
         }
     }
 
-    // Apply for a job (JOB_SEEKER only)
+    // Apply for a job (JOB_SEEKER only). Retries carrying the same Idempotency-Key
+    // return the application created by the first request.
     @PostMapping("/{id}/apply")
     public ResponseEntity<?> applyForJob(@PathVariable Long id,
             @Valid @RequestBody ApplyJobRequest request,
-            Authentication authentication) {
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 100)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Idempotency-Key must be 1-100 characters"));
+        }
+
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-            Optional<Job> jobOpt = jobRepository.findById(id);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "User or job not found"));
+            }
 
-            if (userOpt.isEmpty() || jobOpt.isEmpty()) {
+            // Retried request: answer from the stored application before any other work
+            Optional<JobApplication> previous = jobApplicationService.findByIdempotencyKey(user, idempotencyKey);
+            if (previous.isPresent()) {
+                return replayApplication(previous.get(), id);
+            }
+
+            Optional<Job> jobOpt = jobRepository.findById(id);
+            if (jobOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or job not found"));
             }
 
-            User user = userOpt.get();
             Job job = jobOpt.get();
 
             if (user.getJobRole() != JobRole.JOB_SEEKER) {
@@ -357,7 +399,9 @@ public class JobController {
                         .body(Map.of("error", "Only job seekers can apply for jobs"));
             }
 
-            if (job.getStatus() != JobStatus.ACTIVE) {
+            // Deadline check covers the window before the expiry scheduler closes the job
+            if (job.getStatus() != JobStatus.ACTIVE ||
+                    (job.getDeadline() != null && job.getDeadline().isBefore(LocalDate.now()))) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(Map.of("error", "This job is not accepting applications"));
             }
@@ -368,19 +412,18 @@ public class JobController {
                         .body(Map.of("error", "You have already applied for this job"));
             }
 
-            JobApplication application = new JobApplication();
-            application.setJob(job);
-            application.setApplicant(user);
-            application.setCoverLetter(request.getCoverLetter());
-            application.setResumeUrl(request.getResumeUrl());
-            application.setEmail(request.getEmail());
-            application.setPhone(request.getPhone());
-
-            JobApplication savedApplication = jobApplicationRepository.save(application);
-
-            // Update applicants count
-            job.setApplicantsCount(job.getApplicantsCount() + 1);
-            jobRepository.save(job);
+            JobApplication savedApplication;
+            try {
+                savedApplication = jobApplicationService.apply(job, user, request, idempotencyKey);
+            } catch (DataIntegrityViolationException e) {
+                // Lost a race against a concurrent request for the same (job, applicant)
+                previous = jobApplicationService.findByIdempotencyKey(user, idempotencyKey);
+                if (previous.isPresent()) {
+                    return replayApplication(previous.get(), id);
+                }
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "You have already applied for this job"));
+            }
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(JobApplicationResponse.fromApplication(savedApplication));
@@ -390,77 +433,212 @@ public class JobController {
         }
     }
 
+    private ResponseEntity<?> replayApplication(JobApplication application, Long jobId) {
+        if (!application.getJob().getId().equals(jobId)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("error", "Idempotency-Key was already used for a different job"));
+        }
+        return ResponseEntity.ok(JobApplicationResponse.fromApplication(application));
+    }
+
     // Get applications for a job (EMPLOYER, own jobs only)
     @GetMapping("/{id}/applications")
-    public ResponseEntity<?> getJobApplications(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getJobApplications(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Job> jobOpt = jobRepository.findById(id);
 
-            if (userOpt.isEmpty() || jobOpt.isEmpty()) {
+            if (user == null || jobOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or job not found"));
             }
-
-            User user = userOpt.get();
             Job job = jobOpt.get();
 
-            if (!job.getPostedBy().getId().equals(user.getId()) && user.getRole() != Role.ADMIN) {
+            if (!job.getPostedBy().getId().equals(user.getId()) &&
+                    !permissionService.has(user, Capability.MANAGE_ANY_JOB)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You can only view applications for your own jobs"));
             }
 
-            List<JobApplication> applications = jobApplicationRepository.findByJobOrderByAppliedAtDesc(job);
-            List<JobApplicationResponse> response = applications.stream()
-                    .map(JobApplicationResponse::fromApplication)
-                    .collect(Collectors.toList());
+            int pageSize = CursorPage.boundedSize(size);
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            List<JobApplicationResponse> applications = jobApplicationRepository.findCardsByJobId(job.getId(),
+                    after.getTimestamp(), after.getId(), PageRequest.ofSize(pageSize + 1));
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(CursorPage.of(applications, pageSize, JobController::applicationCursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch applications: " + e.getMessage()));
         }
     }
 
+    // Export applications for a job as CSV or XLSX (EMPLOYER, own jobs only)
+    @GetMapping("/{id}/applications/export")
+    public ResponseEntity<StreamingResponseBody> exportJobApplications(@PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
+            Authentication authentication,
+            @CurrentUser User user) {
+        // Errors are thrown: the streaming return type can't carry a JSON error body
+        if (authentication == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+
+        boolean xlsx = format.equalsIgnoreCase("xlsx");
+        if (!xlsx && !format.equalsIgnoreCase("csv")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be csv or xlsx");
+        }
+        Optional<Job> jobOpt = jobRepository.findById(id);
+
+        if (user == null || jobOpt.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User or job not found");
+        }
+        Job job = jobOpt.get();
+
+        if (!job.getPostedBy().getId().equals(user.getId()) &&
+                !permissionService.has(user, Capability.MANAGE_ANY_JOB)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "You can only export applications for your own jobs");
+        }
+
+        StreamingResponseBody body = out -> {
+            if (xlsx) {
+                jobApplicationExportService.writeXlsx(id, out);
+            } else {
+                jobApplicationExportService.writeCsv(id, out);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(xlsx
+                ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                : MediaType.parseMediaType("text/csv; charset=UTF-8"));
+        headers.setContentDispositionFormData("attachment",
+                "job-" + id + "-applications." + (xlsx ? "xlsx" : "csv"));
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     // Get user's applications (JOB_SEEKER)
     @GetMapping("/my-applications")
-    public ResponseEntity<?> getMyApplications(Authentication authentication) {
+    public ResponseEntity<?> getMyApplications(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User not found"));
             }
 
-            User user = userOpt.get();
-
             if (user.getJobRole() != JobRole.JOB_SEEKER) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Only job seekers can view their applications"));
             }
 
-            List<JobApplication> applications = jobApplicationRepository.findByApplicantOrderByAppliedAtDesc(user);
-            List<JobApplicationResponse> response = applications.stream()
-                    .map(JobApplicationResponse::fromApplication)
+            int pageSize = CursorPage.boundedSize(size);
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            List<JobApplicationResponse> applications = jobApplicationRepository.findCardsByApplicantId(
+                    user.getId(), after.getTimestamp(), after.getId(), PageRequest.ofSize(pageSize + 1));
+
+            return ResponseEntity.ok(CursorPage.of(applications, pageSize, JobController::applicationCursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch applications: " + e.getMessage()));
+        }
+    }
+
+    // Jobs similar to the given one, from the precomputed neighbour table
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> getSimilarJobs(@PathVariable Long id,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Authentication required"));
+        }
+
+        try {
+            List<Long> ids = similarJobsService.similarTo(id, Math.min(CursorPage.boundedSize(size),
+                    SimilarJobsService.TOP_K));
+            if (ids.isEmpty()) {
+                return ResponseEntity.ok(List.of());
+            }
+
+            Map<Long, JobCardResponse> cards = jobRepository.findCardsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(JobCardResponse::getId, card -> card));
+            List<JobCardResponse> response = ids.stream()
+                    .map(cards::get)
+                    .filter(card -> card != null && card.getStatus() == JobStatus.ACTIVE)
                     .collect(Collectors.toList());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to fetch applications: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to fetch similar jobs: " + e.getMessage()));
+        }
+    }
+
+    // Recommended jobs for the current job seeker, from their application history
+    @GetMapping("/recommendations")
+    public ResponseEntity<?> getRecommendations(@RequestParam(required = false) Integer size,
+            Authentication authentication,
+            @CurrentUser User user) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Authentication required"));
+        }
+
+        try {
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "User not found"));
+            }
+
+            if (user.getJobRole() != JobRole.JOB_SEEKER) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Only job seekers can get recommendations"));
+            }
+
+            int limit = Math.min(CursorPage.boundedSize(size), JobRecommendationService.TOP_K);
+            List<Long> ids = jobRecommendationService.recommend(user.getId(), limit);
+
+            // No history or no match yet: fall back to the newest active jobs not already applied to
+            if (ids.isEmpty()) {
+                CursorPage.Cursor first = CursorPage.Cursor.FIRST;
+                return ResponseEntity.ok(jobRepository.findCardsByStatusNotAppliedBy(JobStatus.ACTIVE,
+                        user.getId(), first.getTimestamp(), first.getId(), PageRequest.ofSize(limit)));
+            }
+
+            Map<Long, JobCardResponse> cards = jobRepository.findCardsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(JobCardResponse::getId, card -> card));
+            List<JobCardResponse> response = ids.stream()
+                    .map(cards::get)
+                    .filter(card -> card != null && card.getStatus() == JobStatus.ACTIVE)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch recommendations: " + e.getMessage()));
         }
     }
 
@@ -479,4 +657,12 @@ public class JobController {
                 .map(type -> Map.of("value", type.name(), "label", type.getLabel()))
                 .collect(Collectors.toList()));
     }
+
+    private static CursorPage.Cursor jobCursor(JobCardResponse job) {
+        return new CursorPage.Cursor(job.getCreatedAt(), job.getId());
+    }
+
+    private static CursorPage.Cursor applicationCursor(JobApplicationResponse application) {
+        return new CursorPage.Cursor(application.getAppliedAt(), application.getId());
+    }
 }
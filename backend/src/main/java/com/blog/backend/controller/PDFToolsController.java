@@ -1,67 +1,101 @@
 package com.blog.backend.controller;
 
+import com.blog.backend.config.CachedConversion;
+import com.blog.backend.service.PdfOptimizerService;
+import com.blog.backend.service.PdfPageService;
+import com.blog.backend.service.PdfTextExtractionService;
+import com.blog.backend.service.TempFiles;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tools/pdf")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = { "X-Original-Size", "X-Compressed-Size", "X-Images-Recompressed",
+        "X-Duplicates-Removed" })
 public class PDFToolsController {
 
+    @Autowired
+    private PdfOptimizerService pdfOptimizerService;
+
+    @Autowired
+    private PdfTextExtractionService pdfTextExtractionService;
+
+    @Autowired
+    private PdfPageService pdfPageService;
+
     @PostMapping("/compress")
-    public ResponseEntity<?> compressPDF(@RequestParam("file") MultipartFile file) {
+    @CachedConversion
+    public ResponseEntity<?> compressPDF(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "dpi", defaultValue = "150") int dpi,
+            @RequestParam(value = "quality", defaultValue = "0.75") float quality) {
+        if (dpi < 36 || dpi > 600 || quality < 0.1f || quality > 1f) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "DPI must be between 36 and 600 and quality between 0.1 and 1"));
+        }
+
+        File source = null;
+        File target = null;
         try {
-            PDDocument document = PDDocument.load(file.getInputStream());
+            // Work on temp files so PDFBox can page the document instead of holding it in heap
+            source = TempFiles.copyOf(file, "pdf-compress-", ".pdf");
+            target = File.createTempFile("pdf-compressed-", ".pdf");
 
-            // Basic compression by optimizing images and removing metadata
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            document.save(outputStream);
-            document.close();
+            PdfOptimizerService.Report report = pdfOptimizerService.optimize(source, target, dpi, quality);
 
-            byte[] compressedBytes = outputStream.toByteArray();
+            // Never hand back a bigger file than we were given
+            boolean improved = report.optimizedSize < report.originalSize;
+            byte[] compressedBytes = Files.readAllBytes(improved ? target.toPath() : source.toPath());
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
             headers.setContentDispositionFormData("attachment", "compressed.pdf");
+            headers.set("X-Original-Size", String.valueOf(report.originalSize));
+            headers.set("X-Compressed-Size", String.valueOf(compressedBytes.length));
+            headers.set("X-Images-Recompressed", String.valueOf(report.imagesRecompressed));
+            headers.set("X-Duplicates-Removed", String.valueOf(report.duplicateImages + report.duplicateFonts));
 
             return new ResponseEntity<>(compressedBytes, headers, HttpStatus.OK);
 
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to compress PDF: " + e.getMessage()));
+        } finally {
+            if (source != null)
+                source.delete();
+            if (target != null)
+                target.delete();
         }
     }
 
     @PostMapping("/to-word")
+    @CachedConversion
     public ResponseEntity<?> pdfToWord(@RequestParam("file") MultipartFile file) {
+        File source = null;
         try {
-            // Note: Converting PDF to Word requires OCR for best results
-            // This is a basic implementation that creates a Word doc with extracted text
-            PDDocument pdfDocument = PDDocument.load(file.getInputStream());
-
-            XWPFDocument wordDocument = new XWPFDocument();
-            XWPFParagraph paragraph = wordDocument.createParagraph();
-            paragraph.createRun().setText("PDF content extracted");
-
-            pdfDocument.close();
+            // Note: scanned PDFs have no text layer and would need OCR; this extracts the text layer
+            source = TempFiles.copyOf(file, "pdf-to-word-", ".pdf");
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            wordDocument.write(outputStream);
-            wordDocument.close();
+            pdfTextExtractionService.writeWord(source, outputStream);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(
@@ -73,10 +107,14 @@ public class PDFToolsController {
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to convert PDF to Word: " + e.getMessage()));
+        } finally {
+            if (source != null)
+                source.delete();
         }
     }
 
     @PostMapping("/from-text")
+    @CachedConversion
     public ResponseEntity<?> textToPDF(@RequestParam("text") String text) {
         try {
             PDDocument document = new PDDocument();
@@ -114,14 +152,140 @@ public class PDFToolsController {
         }
     }
 
+    @PostMapping("/merge")
+    public ResponseEntity<StreamingResponseBody> mergePDFs(@RequestParam("files") List<MultipartFile> files) {
+        // Errors are thrown: the streaming return type can't carry a JSON error body
+        if (files.size() < 2 || files.size() > pdfPageService.getMaxFiles()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Upload between 2 and " + pdfPageService.getMaxFiles() + " PDFs to merge");
+        }
+
+        List<File> sources = new ArrayList<>();
+        try {
+            int totalPages = 0;
+            for (MultipartFile file : files) {
+                File source = copyToTempFile(file, "pdf-merge-");
+                sources.add(source);
+                totalPages += pageCount(source, file.getOriginalFilename());
+            }
+            if (totalPages > pdfPageService.getMaxPages()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Merged PDF would have " + totalPages + " pages; the limit is " + pdfPageService.getMaxPages());
+            }
+        } catch (RuntimeException e) {
+            sources.forEach(File::delete);
+            throw e;
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                pdfPageService.merge(sources, out);
+            } finally {
+                sources.forEach(File::delete);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "merged.pdf");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @PostMapping("/split")
+    public ResponseEntity<StreamingResponseBody> splitPDF(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "ranges", required = false) String ranges,
+            @RequestParam(value = "every", defaultValue = "1") int every) {
+        File source = copyToTempFile(file, "pdf-split-");
+        List<int[]> parts;
+        try {
+            int pages = pageCount(source, file.getOriginalFilename());
+            parts = ranges == null || ranges.isBlank()
+                    ? PdfPageService.everyPages(every, pages)
+                    : PdfPageService.parseRanges(ranges, pages);
+        } catch (IllegalArgumentException e) {
+            source.delete();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            source.delete();
+            throw e;
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                pdfPageService.split(source, parts, "page", out);
+            } finally {
+                source.delete();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "split.zip");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @PostMapping("/extract-pages")
+    public ResponseEntity<StreamingResponseBody> extractPages(@RequestParam("file") MultipartFile file,
+            @RequestParam("pages") String pages) {
+        File source = copyToTempFile(file, "pdf-extract-");
+        List<int[]> selection;
+        try {
+            selection = PdfPageService.parseRanges(pages, pageCount(source, file.getOriginalFilename()));
+        } catch (IllegalArgumentException e) {
+            source.delete();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            source.delete();
+            throw e;
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                pdfPageService.extract(source, selection, out);
+            } finally {
+                source.delete();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "extracted.pdf");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     @GetMapping("/info")
     public ResponseEntity<?> getPDFInfo() {
         return ResponseEntity.ok(Map.of(
                 "features", new String[] {
                         "PDF Compression",
                         "PDF to Word conversion",
-                        "Text to PDF conversion"
+                        "Text to PDF conversion",
+                        "PDF merge",
+                        "PDF split",
+                        "PDF page extraction"
                 },
                 "maxSize", "10MB"));
     }
+
+    private static File copyToTempFile(MultipartFile file, String prefix) {
+        try {
+            return TempFiles.copyOf(file, prefix, ".pdf");
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to store upload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Page count of an uploaded PDF, as a 400 if it can't be read or is too long.
+     */
+    private int pageCount(File source, String name) {
+        try {
+            return pdfPageService.pageCount(source);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + ": " + e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " is not a readable PDF");
+        }
+    }
 }
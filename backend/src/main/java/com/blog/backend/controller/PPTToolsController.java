@@ -1,76 +1,66 @@
 package com.blog.backend.controller;
 
+import com.blog.backend.config.CachedConversion;
+import com.blog.backend.service.PptRenderService;
+import com.blog.backend.service.PptxOptimizerService;
+import com.blog.backend.service.TempFileResource;
+import com.blog.backend.service.TempFiles;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.poi.xslf.usermodel.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tools/ppt")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = { "X-Original-Size", "X-Compressed-Size", "X-Images-Recompressed",
+        "X-Duplicate-Images" })
 public class PPTToolsController {
 
-    @PostMapping("/compress")
-    public ResponseEntity<?> compressPPT(@RequestParam("file") MultipartFile file) {
-        try {
-            InputStream inputStream = file.getInputStream();
-            XMLSlideShow ppt = new XMLSlideShow(inputStream);
+    @Autowired
+    private PptxOptimizerService pptxOptimizerService;
 
-            // Compress images in the presentation
-            for (XSLFPictureData data : ppt.getPictureData()) {
-                byte[] bytes = data.getData();
-                if (bytes.length > 500 * 1024) { // Only compress images > 500KB
-                    try {
-                        ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-                        BufferedImage image = ImageIO.read(bais);
-                        if (image != null) {
-                            // Resize to max 1280px width
-                            int targetWidth = 1280;
-                            if (image.getWidth() > targetWidth) {
-                                int targetHeight = (int) (image.getHeight()
-                                        * ((double) targetWidth / image.getWidth()));
-                                BufferedImage resized = new BufferedImage(targetWidth, targetHeight,
-                                        BufferedImage.TYPE_INT_RGB);
-                                Graphics2D g = resized.createGraphics();
-                                g.drawImage(image, 0, 0, targetWidth, targetHeight, null);
-                                g.dispose();
-
-                                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                                ImageIO.write(resized, "jpeg", baos);
-                                data.setData(baos.toByteArray());
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Ignore image errors and continue
-                        System.err.println("Failed to compress image: " + e.getMessage());
-                    }
-                }
-            }
+    @Autowired
+    private PptRenderService pptRenderService;
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ppt.write(outputStream);
-            ppt.close();
+    @PostMapping("/compress")
+    @CachedConversion
+    public ResponseEntity<?> compressPPT(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "maxImageKb", defaultValue = "300") int maxImageKb) {
+        if (maxImageKb < 10) {
+            return ResponseEntity.badRequest().body(Map.of("error", "maxImageKb must be at least 10"));
+        }
+
+        File source = null;
+        File target = null;
+        try {
+            source = TempFiles.copyOf(file, "ppt-", ".tmp");
+            target = File.createTempFile("ppt-compressed-", ".pptx");
+            PptxOptimizerService.Report report = pptxOptimizerService.optimize(source, target, maxImageKb * 1024);
 
-            byte[] compressedData = outputStream.toByteArray();
+            // Never hand back a bigger file than we were given
+            boolean improved = report.optimizedSize < report.originalSize;
+            byte[] compressedData = Files.readAllBytes(improved ? target.toPath() : source.toPath());
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType
                     .parseMediaType("application/vnd.openxmlformats-officedocument.presentationml.presentation"));
             headers.setContentDispositionFormData("attachment", "compressed.pptx");
+            headers.set("X-Original-Size", String.valueOf(report.originalSize));
+            headers.set("X-Compressed-Size", String.valueOf(compressedData.length));
+            headers.set("X-Images-Recompressed", String.valueOf(report.imagesRecompressed));
+            headers.set("X-Duplicate-Images", String.valueOf(report.duplicateImages));
 
             return ResponseEntity.ok()
                     .headers(headers)
@@ -78,11 +68,31 @@ public class PPTToolsController {
 
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error compressing PPT: " + e.getMessage());
+        } finally {
+            if (source != null)
+                source.delete();
+            if (target != null)
+                target.delete();
         }
     }
 
+    /**
+     * mode=text (the default) copies the slides' text into a plain PDF;
+     * mode=render draws every slide as an image at dpi, keeping the layout.
+     */
     @PostMapping("/to-pdf")
-    public ResponseEntity<?> pptToPDF(@RequestParam("file") MultipartFile file) {
+    @CachedConversion
+    public ResponseEntity<?> pptToPDF(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "mode", defaultValue = "text") String mode,
+            @RequestParam(value = "dpi", defaultValue = "150") int dpi,
+            @RequestParam(value = "quality", defaultValue = "0.9") float quality) {
+        if (mode.equals("render")) {
+            return renderToPDF(file, dpi, quality);
+        }
+        if (!mode.equals("text")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Mode must be text or render"));
+        }
+
         try {
             InputStream inputStream = file.getInputStream();
             XMLSlideShow ppt = new XMLSlideShow(inputStream);
@@ -153,4 +163,40 @@ public class PPTToolsController {
             return ResponseEntity.badRequest().body("Error converting PPT to PDF: " + e.getMessage());
         }
     }
+
+    private ResponseEntity<?> renderToPDF(MultipartFile file, int dpi, float quality) {
+        if (dpi < 36 || dpi > 300) {
+            return ResponseEntity.badRequest().body(Map.of("error", "DPI must be between 36 and 300"));
+        }
+        if (quality < 0.1f || quality > 1f) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Quality must be between 0.1 and 1"));
+        }
+
+        File source = null;
+        File target = null;
+        try {
+            source = TempFiles.copyOf(file, "ppt-", ".tmp");
+            target = File.createTempFile("ppt-pdf-", ".pdf");
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+                pptRenderService.writePdf(source, dpi, quality, out);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", "converted.pdf");
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(new TempFileResource(target));
+
+        } catch (Exception e) {
+            if (target != null)
+                target.delete();
+            return ResponseEntity.badRequest().body("Error converting PPT to PDF: " + e.getMessage());
+        } finally {
+            if (source != null)
+                source.delete();
+        }
+    }
+
 }
@@ -4,6 +4,9 @@ import com.blog.backend.dto.CreatePostRequest;
 import com.blog.backend.dto.UpdatePostRequest;
 import com.blog.backend.model.*;
 import com.blog.backend.repository.*;
+import com.blog.backend.security.CurrentUser;
+import com.blog.backend.security.RequiresCapability;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -30,9 +33,6 @@ public class PostController {
     @Autowired
     private CategoryRepository categoryRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private PostViewRepository postViewRepository;
 
@@ -137,8 +137,8 @@ public class PostController {
     // Get single post by slug
     @GetMapping("/slug/{slug}")
     public ResponseEntity<?> getPostBySlug(@PathVariable String slug,
-            @RequestHeader(value = "X-Forwarded-For", required = false) String xForwardedFor,
-            @RequestHeader(value = "User-Agent", required = false) String userAgent) {
+            @RequestHeader(value = "User-Agent", required = false) String userAgent,
+            HttpServletRequest request) {
         Optional<Post> postOpt = postRepository.findBySlug(slug);
         if (postOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -148,7 +148,8 @@ public class PostController {
         Post post = postOpt.get();
 
         // Track view (only once per IP per day)
-        String ipAddress = xForwardedFor != null ? xForwardedFor.split(",")[0] : "unknown";
+        // Tomcat resolves this from X-Forwarded-For when the request came through a trusted proxy
+        String ipAddress = request.getRemoteAddr();
         LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
 
         if (!postViewRepository.existsByPostIdAndIpAddressAndViewDateAfter(post.getId(), ipAddress, oneDayAgo)) {
@@ -166,18 +167,17 @@ public class PostController {
     // Create new post (ADMIN, EDITOR)
     @PostMapping
     public ResponseEntity<?> createPost(@Valid @RequestBody CreatePostRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         // Actually this might be UserDetails, let's fix
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "User not found"));
         }
-        User user = userOpt.get();
 
         if (!permissionService.canCreatePost(user)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -278,17 +278,16 @@ public class PostController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updatePost(@PathVariable Long id,
             @RequestBody UpdatePostRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "User not found"));
         }
-        User user = userOpt.get();
 
         Optional<Post> postOpt = postRepository.findById(id);
 
@@ -398,19 +397,17 @@ public class PostController {
     // delete any post)
     @DeleteMapping("/{id}")
     @Transactional
-    public ResponseEntity<?> deletePost(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> deletePost(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User currentUser) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        String email = authentication.getName();
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isEmpty()) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-        User currentUser = userOpt.get();
 
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) {
@@ -420,14 +417,13 @@ public class PostController {
         Post post = postOpt.get();
 
         // Check permissions
-        boolean isAdmin = currentUser.getRole() == Role.ADMIN;
-        boolean isEditor = currentUser.getRole() == Role.EDITOR;
+        boolean canDeleteAny = permissionService.canDeletePost(currentUser, post);
         boolean isOwner = post.getCreatedBy().getId().equals(currentUser.getId());
         boolean isUnpublished = post.getStatus() == PostStatus.DRAFT || post.getStatus() == PostStatus.UNDER_REVIEW;
 
         // Admin and Editor can delete ANY post
         // Regular users can only delete their own UNPUBLISHED posts
-        if (!isAdmin && !isEditor) {
+        if (!canDeleteAny) {
             if (!isOwner) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You can only delete your own posts"));
@@ -467,19 +463,17 @@ public class PostController {
     public ResponseEntity<?> requestDeletion(
             @PathVariable Long id,
             @RequestBody Map<String, String> requestBody,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User currentUser) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-
-        User currentUser = userOpt.get();
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -544,18 +538,8 @@ public class PostController {
 
     // Unpublish post
     @PatchMapping("/{id}/unpublish")
-    public ResponseEntity<?> unpublishPost(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        User currentUser = (User) authentication.getPrincipal();
-        if (currentUser.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only admins can unpublish posts"));
-        }
-
+    @RequiresCapability(value = Capability.PUBLISH_POST, message = "Only admins and editors can unpublish posts")
+    public ResponseEntity<?> unpublishPost(@PathVariable Long id) {
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -582,19 +566,16 @@ public class PostController {
 
     // Get my submissions (WRITER+)
     @GetMapping("/my-submissions")
-    public ResponseEntity<?> getMySubmissions(Authentication authentication) {
+    public ResponseEntity<?> getMySubmissions(Authentication authentication, @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-
-        User user = userOpt.get();
         List<Post> submissions = postRepository.findByCreatedByOrderByCreatedAtDesc(user);
 
         // Include submission stats
@@ -616,20 +597,18 @@ public class PostController {
 
     // Submit post for approval (WRITER+)
     @PostMapping("/{id}/submit")
-    public ResponseEntity<?> submitForApproval(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> submitForApproval(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
 
-        User user = userOpt.get();
-
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -669,26 +648,13 @@ public class PostController {
 
     // Approve post (EDITOR/ADMIN only)
     @PostMapping("/{id}/approve")
-    public ResponseEntity<?> approvePost(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+    @RequiresCapability(value = Capability.PUBLISH_POST, message = "Only editors and admins can approve posts")
+    public ResponseEntity<?> approvePost(@PathVariable Long id, @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
 
-        User user = userOpt.get();
-
-        // Check permissions - only EDITOR or ADMIN can approve
-        if (user.getRole() != Role.EDITOR && user.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only editors and admins can approve posts"));
-        }
-
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -726,28 +692,15 @@ public class PostController {
 
     // Reject post (EDITOR/ADMIN only)
     @PostMapping("/{id}/reject")
+    @RequiresCapability(value = Capability.PUBLISH_POST, message = "Only editors and admins can reject posts")
     public ResponseEntity<?> rejectPost(@PathVariable Long id,
             @RequestBody(required = false) Map<String, String> requestBody,
-            Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+            @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
 
-        User user = userOpt.get();
-
-        // Check permissions
-        if (user.getRole() != Role.EDITOR && user.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only editors and admins can reject posts"));
-        }
-
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -784,19 +737,17 @@ public class PostController {
 
     // Unsubmit post - Writer retracts submission back to DRAFT
     @PostMapping("/{id}/unsubmit")
-    public ResponseEntity<?> unsubmitPost(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> unsubmitPost(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-
-        User user = userOpt.get();
         Optional<Post> postOpt = postRepository.findById(id);
         if (postOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -837,26 +788,8 @@ public class PostController {
 
     // Get pending approvals (EDITOR/ADMIN only)
     @GetMapping("/pending-approvals")
-    public ResponseEntity<?> getPendingApprovals(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "User not found"));
-        }
-
-        User user = userOpt.get();
-
-        // Check permissions
-        if (user.getRole() != Role.EDITOR && user.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only editors and admins can view pending approvals"));
-        }
-
+    @RequiresCapability(value = Capability.PUBLISH_POST, message = "Only editors and admins can view pending approvals")
+    public ResponseEntity<?> getPendingApprovals() {
         List<Post> pendingPosts = postRepository.findByStatus(PostStatus.UNDER_REVIEW);
 
         return ResponseEntity.ok(Map.of(
@@ -4,6 +4,7 @@ import com.blog.backend.dto.CreateRevisionRequest;
 import com.blog.backend.dto.FAQDTO;
 import com.blog.backend.model.*;
 import com.blog.backend.repository.*;
+import com.blog.backend.security.CurrentUser;
 import com.blog.backend.service.PermissionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -25,9 +26,6 @@ public class PostRevisionController {
     @Autowired
     private PostRepository postRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private AuthorRepository authorRepository;
 
@@ -42,18 +40,17 @@ public class PostRevisionController {
      * POST /api/posts/{postId}/revisions
      */
     @PostMapping("/posts/{postId}")
-    public ResponseEntity<?> createRevision(@PathVariable Long postId, Authentication authentication) {
+    public ResponseEntity<?> createRevision(@PathVariable Long postId, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-        User user = userOpt.get();
 
         Optional<Post> postOpt = postRepository.findById(postId);
         if (postOpt.isEmpty()) {
@@ -138,19 +135,18 @@ public class PostRevisionController {
     public ResponseEntity<?> updateRevision(
             @PathVariable Long id,
             @RequestBody CreateRevisionRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
 
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-        User user = userOpt.get();
 
         Optional<PostRevision> revisionOpt = revisionRepository.findById(id);
         if (revisionOpt.isEmpty()) {
@@ -235,18 +231,17 @@ public class PostRevisionController {
      * POST /api/revisions/{id}/publish
      */
     @PostMapping("/{id}/publish")
-    public ResponseEntity<?> publishRevision(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> publishRevision(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-        User user = userOpt.get();
 
         Optional<PostRevision> revisionOpt = revisionRepository.findById(id);
         if (revisionOpt.isEmpty()) {
@@ -312,18 +307,17 @@ public class PostRevisionController {
      * DELETE /api/revisions/{id}
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> discardRevision(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> discardRevision(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(authentication.getName());
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
-        User user = userOpt.get();
 
         Optional<PostRevision> revisionOpt = revisionRepository.findById(id);
         if (revisionOpt.isEmpty()) {
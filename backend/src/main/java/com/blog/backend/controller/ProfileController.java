@@ -4,6 +4,7 @@ import com.blog.backend.dto.UpdateUserProfileRequest;
 import com.blog.backend.dto.UserDTO;
 import com.blog.backend.model.User;
 import com.blog.backend.repository.UserRepository;
+import com.blog.backend.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,24 +25,18 @@ public class ProfileController {
 
     // Get own profile
     @GetMapping
-    public ResponseEntity<?> getProfile(Authentication authentication) {
+    public ResponseEntity<?> getProfile(Authentication authentication, @CurrentUser User user) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        // Get user email from authentication
-        String userEmail = authentication.getName();
-
-        // Fetch fresh user from database
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        if (userOpt.isEmpty()) {
+        // Resolved by the JWT filter from the principal cache
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
 
-        User user = userOpt.get();
-
         UserDTO userDTO = new UserDTO(
                 user.getId(),
                 user.getEmail(),
@@ -59,18 +54,17 @@ public class ProfileController {
     @PutMapping
     public ResponseEntity<?> updateProfile(
             @RequestBody UpdateUserProfileRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User currentUser) {
 
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
-        // Get user email from authentication
-        String userEmail = authentication.getName();
-
-        // Fetch fresh user from database
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        // The principal is shared through the cache; edit a fresh copy
+        Optional<User> userOpt = currentUser == null ? Optional.empty()
+                : userRepository.findById(currentUser.getId());
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
@@ -5,7 +5,7 @@ import com.blog.backend.dto.ReviewRequest;
 import com.blog.backend.model.*;
 import com.blog.backend.repository.PostHistoryRepository;
 import com.blog.backend.repository.PostRepository;
-import com.blog.backend.repository.UserRepository;
+import com.blog.backend.security.CurrentUser;
 import com.blog.backend.service.PermissionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,9 +28,6 @@ public class ReviewController {
     @Autowired
     private PostRepository postRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private PostHistoryRepository postHistoryRepository;
 
@@ -47,23 +44,20 @@ public class ReviewController {
     @PostMapping("/{id}/chat")
     public ResponseEntity<?> addInternalComment(@PathVariable Long id,
             @RequestBody Map<String, String> request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Post> postOpt = postRepository.findById(id);
 
-            if (userOpt.isEmpty() || postOpt.isEmpty()) {
+            if (user == null || postOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or post not found"));
             }
-
-            User user = userOpt.get();
             Post post = postOpt.get();
 
             if (!permissionService.canEditPost(user, post)) {
@@ -94,23 +88,19 @@ public class ReviewController {
      * Accessible by: ADMIN, EDITOR, REVIEWER
      */
     @GetMapping("/{id}/chat")
-    public ResponseEntity<?> getInternalComments(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getInternalComments(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User not found"));
             }
 
-            User user = userOpt.get();
-
             if (!permissionService.hasDashboardAccess(user)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You don't have permission to view internal comments"));
@@ -130,23 +120,18 @@ public class ReviewController {
      * Accessible by: ADMIN, REVIEWER
      */
     @GetMapping("/pending")
-    public ResponseEntity<?> getPendingReviews(Authentication authentication) {
+    public ResponseEntity<?> getPendingReviews(Authentication authentication, @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User not found"));
             }
 
-            User user = userOpt.get();
-
             if (!permissionService.canReviewPost(user)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You don't have permission to review posts"));
@@ -168,23 +153,20 @@ public class ReviewController {
     @PostMapping("/{id}/approve")
     public ResponseEntity<?> approvePost(@PathVariable Long id,
             @Valid @RequestBody ReviewRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Post> postOpt = postRepository.findById(id);
 
-            if (userOpt.isEmpty() || postOpt.isEmpty()) {
+            if (user == null || postOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or post not found"));
             }
-
-            User user = userOpt.get();
             Post post = postOpt.get();
 
             if (!permissionService.canReviewPost(user)) {
@@ -228,23 +210,20 @@ public class ReviewController {
     @PostMapping("/{id}/reject")
     public ResponseEntity<?> rejectPost(@PathVariable Long id,
             @Valid @RequestBody ReviewRequest request,
-            Authentication authentication) {
+            Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Post> postOpt = postRepository.findById(id);
 
-            if (userOpt.isEmpty() || postOpt.isEmpty()) {
+            if (user == null || postOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or post not found"));
             }
-
-            User user = userOpt.get();
             Post post = postOpt.get();
 
             if (!permissionService.canReviewPost(user)) {
@@ -286,23 +265,19 @@ public class ReviewController {
      * Accessible by: ADMIN, EDITOR, REVIEWER
      */
     @GetMapping("/history/{id}")
-    public ResponseEntity<?> getPostHistory(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getPostHistory(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User not found"));
             }
 
-            User user = userOpt.get();
-
             if (!permissionService.hasDashboardAccess(user)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "You don't have permission to view post history"));
@@ -325,23 +300,20 @@ public class ReviewController {
      * Accessible by: ADMIN, EDITOR
      */
     @PostMapping("/{id}/submit")
-    public ResponseEntity<?> submitForReview(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> submitForReview(@PathVariable Long id, Authentication authentication,
+            @CurrentUser User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Authentication required"));
         }
 
         try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmail(email);
             Optional<Post> postOpt = postRepository.findById(id);
 
-            if (userOpt.isEmpty() || postOpt.isEmpty()) {
+            if (user == null || postOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User or post not found"));
             }
-
-            User user = userOpt.get();
             Post post = postOpt.get();
 
             if (!permissionService.canEditPost(user, post)) {
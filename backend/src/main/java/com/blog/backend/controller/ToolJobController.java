@@ -0,0 +1,167 @@
+package com.blog.backend.controller;
+
+import com.blog.backend.service.ConversionJobService;
+import com.blog.backend.service.ConversionJobService.ConversionJob;
+import com.blog.backend.service.ConversionJobService.Status;
+import com.blog.backend.service.ConversionJobService.ToolConversion;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous versions of the document tools. A client submits the same
+ * file and parameters it would send to /api/tools/{tool}/{operation}, gets a
+ * job id back immediately, polls the status and downloads the result.
+ */
+@RestController
+@RequestMapping("/api/tools/jobs")
+@CrossOrigin(origins = "*")
+public class ToolJobController {
+
+    @Autowired
+    private ConversionJobService conversionJobService;
+
+    @Autowired
+    private PDFToolsController pdfToolsController;
+
+    @Autowired
+    private WordToolsController wordToolsController;
+
+    @Autowired
+    private ExcelToolsController excelToolsController;
+
+    @Autowired
+    private PPTToolsController pptToolsController;
+
+    // "tool/operation" -> conversion
+    private final Map<String, ToolConversion> conversions = new HashMap<>();
+
+    @PostConstruct
+    void registerConversions() {
+        conversions.put("pdf/compress", (file, params) -> pdfToolsController.compressPDF(file,
+                Integer.parseInt(params.getOrDefault("dpi", "150")),
+                Float.parseFloat(params.getOrDefault("quality", "0.75"))));
+        conversions.put("pdf/to-word", (file, params) -> pdfToolsController.pdfToWord(file));
+        conversions.put("pdf/from-text", (file, params) -> pdfToolsController.textToPDF(params.get("text")));
+        conversions.put("word/compress", (file, params) -> wordToolsController.compressWord(file));
+        conversions.put("word/to-pdf", (file, params) -> wordToolsController.wordToPDF(file));
+        conversions.put("word/from-text", (file, params) -> wordToolsController.textToWord(params.get("text")));
+        conversions.put("excel/compress", (file, params) -> excelToolsController.compressExcel(file,
+                Float.parseFloat(params.getOrDefault("quality", "0.8"))));
+        conversions.put("excel/to-pdf", (file, params) -> excelToolsController.excelToPDF(file));
+        conversions.put("ppt/compress", (file, params) -> pptToolsController.compressPPT(file,
+                Integer.parseInt(params.getOrDefault("maxImageKb", "300"))));
+        conversions.put("ppt/to-pdf", (file, params) -> pptToolsController.pptToPDF(file,
+                params.getOrDefault("mode", "text"),
+                Integer.parseInt(params.getOrDefault("dpi", "150")),
+                Float.parseFloat(params.getOrDefault("quality", "0.9"))));
+    }
+
+    @PostMapping("/{tool}/{operation}")
+    public ResponseEntity<?> submitJob(@PathVariable String tool, @PathVariable String operation,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam Map<String, String> params) {
+        ToolConversion conversion = conversions.get(tool + "/" + operation);
+        if (conversion == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Unknown conversion: " + tool + "/" + operation));
+        }
+        if (operation.equals("from-text") ? params.get("text") == null : file == null || file.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", operation.equals("from-text") ? "Text is required" : "File is required"));
+        }
+
+        try {
+            ConversionJob job = conversionJobService.submit(tool, operation, file, params, conversion);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(toStatus(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .body(Map.of("error", "Too many " + tool + " conversions queued. Please try again shortly."));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to store upload: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJobStatus(@PathVariable String id) {
+        Optional<ConversionJob> job = conversionJobService.find(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found"));
+        }
+        return ResponseEntity.ok(toStatus(job.get()));
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> downloadResult(@PathVariable String id) {
+        Optional<ConversionJob> jobOpt = conversionJobService.find(id);
+        if (jobOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found"));
+        }
+        ConversionJob job = jobOpt.get();
+        if (job.getStatus() != Status.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Job is " + job.getStatus().name().toLowerCase()));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(job.getContentType() == null
+                ? MediaType.APPLICATION_OCTET_STREAM
+                : MediaType.parseMediaType(job.getContentType()));
+        if (job.getContentDisposition() != null) {
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, job.getContentDisposition());
+        }
+        job.getReportHeaders().forEach(headers::set);
+        return new ResponseEntity<>(new FileSystemResource(job.getResult()), headers, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelJob(@PathVariable String id) {
+        Optional<ConversionJob> job = conversionJobService.find(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found"));
+        }
+        if (!conversionJobService.cancel(job.get())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Job already " + job.get().getStatus().name().toLowerCase()));
+        }
+        return ResponseEntity.ok(toStatus(job.get()));
+    }
+
+    private Map<String, Object> toStatus(ConversionJob job) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.getId());
+        status.put("tool", job.getTool());
+        status.put("operation", job.getOperation());
+        status.put("status", job.getStatus().name());
+        status.put("createdAt", job.getCreatedAt().toString());
+        if (job.getFinishedAt() != null) {
+            status.put("finishedAt", job.getFinishedAt().toString());
+        }
+        if (job.getStatus() == Status.DONE) {
+            status.put("size", job.getResultSize());
+            status.put("resultUrl", "/api/tools/jobs/" + job.getId() + "/result");
+            if (!job.getReportHeaders().isEmpty()) {
+                status.put("report", job.getReportHeaders());
+            }
+        }
+        if (job.getStatus() == Status.FAILED) {
+            status.put("error", job.getError());
+        }
+        return status;
+    }
+}
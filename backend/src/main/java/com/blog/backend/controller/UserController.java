@@ -1,13 +1,15 @@
 package com.blog.backend.controller;
 
 import com.blog.backend.dto.UserDTO;
+import com.blog.backend.model.Capability;
 import com.blog.backend.model.Role;
 import com.blog.backend.model.User;
 import com.blog.backend.repository.UserRepository;
+import com.blog.backend.security.CurrentUser;
+import com.blog.backend.security.RequiresCapability;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,26 +27,8 @@ public class UserController {
 
     // Get all users (ADMIN only)
     @GetMapping
-    public ResponseEntity<?> getAllUsers(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        // Safely cast the principal
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error",
-                            "Invalid authentication token. Principal type: " + principal.getClass().getName()));
-        }
-
-        User currentUser = (User) principal;
-        if (currentUser.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only admins can view all users"));
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_USERS, message = "Only admins can view all users")
+    public ResponseEntity<?> getAllUsers() {
         // Convert users to DTOs (excluding sensitive information)
         List<UserDTO> userDTOs = userRepository.findAll().stream()
                 .map(user -> new UserDTO(
@@ -63,29 +47,10 @@ public class UserController {
 
     // Update user role (ADMIN only)
     @PatchMapping("/{id}/role")
+    @RequiresCapability(value = Capability.MANAGE_USERS, message = "Only admins can update user roles")
     public ResponseEntity<?> updateUserRole(
             @PathVariable Long id,
-            @RequestBody Map<String, String> request,
-            Authentication authentication) {
-
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        // Safely cast the principal
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid authentication token"));
-        }
-
-        User currentUser = (User) principal;
-        if (currentUser.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only admins can update user roles"));
-        }
-
+            @RequestBody Map<String, String> request) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -119,25 +84,8 @@ public class UserController {
 
     // Delete user (ADMIN only)
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteUser(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Authentication required"));
-        }
-
-        // Safely cast the principal
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid authentication token"));
-        }
-
-        User currentUser = (User) principal;
-        if (currentUser.getRole() != Role.ADMIN) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Only admins can delete users"));
-        }
-
+    @RequiresCapability(value = Capability.MANAGE_USERS, message = "Only admins can delete users")
+    public ResponseEntity<?> deleteUser(@PathVariable Long id, @CurrentUser User currentUser) {
         // Prevent deleting yourself
         if (currentUser.getId().equals(id)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -1,5 +1,6 @@
 package com.blog.backend.controller;
 
+import com.blog.backend.config.CachedConversion;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
@@ -24,6 +25,7 @@ import java.util.Map;
 public class WordToolsController {
 
     @PostMapping("/compress")
+    @CachedConversion
     public ResponseEntity<?> compressWord(@RequestParam("file") MultipartFile file) {
         try {
             XWPFDocument document = new XWPFDocument(file.getInputStream());
@@ -49,6 +51,7 @@ public class WordToolsController {
     }
 
     @PostMapping("/to-pdf")
+    @CachedConversion
     public ResponseEntity<?> wordToPDF(@RequestParam("file") MultipartFile file) {
         try {
             XWPFDocument wordDocument = new XWPFDocument(file.getInputStream());
@@ -89,6 +92,7 @@ public class WordToolsController {
     }
 
     @PostMapping("/from-text")
+    @CachedConversion
     public ResponseEntity<?> textToWord(@RequestParam("text") String text) {
         try {
             XWPFDocument document = new XWPFDocument();
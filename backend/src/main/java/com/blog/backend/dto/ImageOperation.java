@@ -0,0 +1,20 @@
+package com.blog.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One step of a batch image pipeline, e.g. {"type":"resize","width":800},
+ * {"type":"convert","format":"png"} or {"type":"compress","quality":0.7}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageOperation {
+    private String type; // resize, convert or compress
+    private Integer width;
+    private Integer height;
+    private String format;
+    private Float quality;
+}
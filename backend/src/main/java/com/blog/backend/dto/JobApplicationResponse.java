@@ -32,6 +32,17 @@ public class JobApplicationResponse {
         private String email;
     }
 
+    /**
+     * Flat constructor used by the JPQL projections in JobApplicationRepository,
+     * which join job and applicant in the same query.
+     */
+    public JobApplicationResponse(Long id, Long jobId, String jobTitle, Long applicantId,
+            String applicantDisplayName, String applicantEmail, String coverLetter, String resumeUrl,
+            String email, String phone, JobApplication.ApplicationStatus status, LocalDateTime appliedAt) {
+        this(id, jobId, jobTitle, new ApplicantInfo(applicantId, applicantDisplayName, applicantEmail),
+                coverLetter, resumeUrl, email, phone, status, appliedAt);
+    }
+
     public static JobApplicationResponse fromApplication(JobApplication application) {
         JobApplicationResponse response = new JobApplicationResponse();
         response.setId(application.getId());
@@ -0,0 +1,37 @@
+package com.blog.backend.dto;
+
+import com.blog.backend.model.JobCategory;
+import com.blog.backend.model.JobStatus;
+import com.blog.backend.model.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight job listing card. Built directly by JPQL constructor expressions
+ * in JobRepository, so listing pages never touch the lazy postedBy association.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCardResponse {
+
+    private Long id;
+    private String title;
+    private String description;
+    private JobCategory category;
+    private JobType jobType;
+    private String location;
+    private BigDecimal salaryMin;
+    private BigDecimal salaryMax;
+    private String companyName;
+    private String companyLogo;
+    private LocalDate deadline;
+    private JobStatus status;
+    private Integer applicantsCount;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.blog.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a job seeker successfully applies for a job.
+ */
+@Data
+@AllArgsConstructor
+public class JobApplicationCreatedEvent {
+    private Long applicantId;
+    private Long jobId;
+}
@@ -0,0 +1,13 @@
+package com.blog.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a job is deleted.
+ */
+@Data
+@AllArgsConstructor
+public class JobDeletedEvent {
+    private Long jobId;
+}
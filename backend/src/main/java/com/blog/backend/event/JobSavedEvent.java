@@ -0,0 +1,14 @@
+package com.blog.backend.event;
+
+import com.blog.backend.model.Job;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a job is created, edited or closed through the API.
+ */
+@Data
+@AllArgsConstructor
+public class JobSavedEvent {
+    private Job job;
+}
@@ -0,0 +1,16 @@
+package com.blog.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published after the expiry scheduler closed jobs whose deadline has passed,
+ * so anything holding active listings can drop them right away.
+ */
+@Data
+@AllArgsConstructor
+public class JobsExpiredEvent {
+    private List<Long> jobIds;
+}
@@ -0,0 +1,25 @@
+package com.blog.backend.model;
+
+/**
+ * Named permissions granted to roles. Each capability is one bit in a role's
+ * capability mask (see PermissionService).
+ */
+public enum Capability {
+    CREATE_POST, // Write new posts (submitted for approval unless PUBLISH_POST)
+    EDIT_ANY_POST, // Edit posts created by others
+    DELETE_ANY_POST, // Delete any post directly, published or not
+    PUBLISH_POST, // Publish/unpublish posts
+    REVIEW_POST, // Approve or reject submitted posts
+    VIEW_ANALYTICS, // Views, likes and comment statistics
+    MANAGE_USERS, // Assign roles, edit and delete users
+    VIEW_USER_LIST, // Read-only user list
+    MANAGE_CATEGORIES, // Create, edit and delete categories
+    MANAGE_DELETION_REQUESTS, // Approve or deny post deletion requests
+    DASHBOARD_ACCESS, // Editorial dashboard
+    MANAGE_ANY_JOB, // Edit, close or delete any job and see its applications
+    REVOKE_ANY_TOKEN; // Revoke tokens issued to other users
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+}
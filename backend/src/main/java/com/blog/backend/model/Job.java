@@ -73,7 +73,9 @@ public class Job {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @Column(name = "applicants_count")
+    // Maintained only by JobRepository.incrementApplicantsCount so that saving a
+    // stale Job entity never overwrites concurrent increments
+    @Column(name = "applicants_count", updatable = false)
     private Integer applicantsCount = 0;
 
     @PrePersist
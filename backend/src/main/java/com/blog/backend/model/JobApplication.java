@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "job_applications")
+@Table(name = "job_applications", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "job_id", "applicant_id" }),
+        @UniqueConstraint(columnNames = { "applicant_id", "idempotency_key" })
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,6 +43,10 @@ public class JobApplication {
     @Column(nullable = false)
     private ApplicationStatus status = ApplicationStatus.PENDING;
 
+    // Client-supplied Idempotency-Key of the apply request, so retries return this row
+    @Column(name = "idempotency_key", length = 100, updatable = false)
+    private String idempotencyKey;
+
     @Column(name = "applied_at", nullable = false, updatable = false)
     private LocalDateTime appliedAt;
 
@@ -1,6 +1,7 @@
 package com.blog.backend.model;
 
 import jakarta.persistence.*;
+import com.blog.backend.security.UserPrincipalCacheListener;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +15,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserPrincipalCacheListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,17 +1,35 @@
 package com.blog.backend.repository;
 
+import com.blog.backend.dto.JobApplicationResponse;
 import com.blog.backend.model.Job;
 import com.blog.backend.model.JobApplication;
 import com.blog.backend.model.User;
+import com.blog.backend.repository.JobRepository.JobFeatures;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface JobApplicationRepository extends JpaRepository<JobApplication, Long> {
 
+    // Projection that joins job and applicant in one statement (no per-row lazy loads)
+    String CARD_SELECT = "SELECT new com.blog.backend.dto.JobApplicationResponse(a.id, j.id, j.title, u.id, "
+            + "u.displayName, u.email, a.coverLetter, a.resumeUrl, a.email, a.phone, a.status, a.appliedAt) "
+            + "FROM JobApplication a JOIN a.job j JOIN a.applicant u ";
+
+    // Keyset predicate and ordering on (appliedAt, id); callers pass size + 1 as the limit
+    String CARD_KEYSET = " AND (a.appliedAt < :appliedAt OR (a.appliedAt = :appliedAt AND a.id < :id))"
+            + " ORDER BY a.appliedAt DESC, a.id DESC";
+
     // Find all applications for a specific job
     List<JobApplication> findByJobOrderByAppliedAtDesc(Job job);
 
@@ -24,9 +42,31 @@ public interface JobApplicationRepository extends JpaRepository<JobApplication,
     // Find specific application
     Optional<JobApplication> findByJobAndApplicant(Job job, User applicant);
 
+    // Find the application created by an earlier request with the same idempotency key
+    Optional<JobApplication> findByApplicantIdAndIdempotencyKey(Long applicantId, String idempotencyKey);
+
     // Count applications for a job
     long countByJob(Job job);
 
     // Count applications by status for a job
     long countByJobAndStatus(Job job, JobApplication.ApplicationStatus status);
+
+    // Keyset-paginated application listings
+    @Query(CARD_SELECT + "WHERE j.id = :jobId" + CARD_KEYSET)
+    List<JobApplicationResponse> findCardsByJobId(@Param("jobId") Long jobId,
+            @Param("appliedAt") LocalDateTime appliedAt, @Param("id") Long id, Pageable limit);
+
+    @Query(CARD_SELECT + "WHERE u.id = :applicantId" + CARD_KEYSET)
+    List<JobApplicationResponse> findCardsByApplicantId(@Param("applicantId") Long applicantId,
+            @Param("appliedAt") LocalDateTime appliedAt, @Param("id") Long id, Pageable limit);
+
+    // Features of every job a user applied to, for building their recommendation profile
+    @Query("SELECT j.id AS id, j.category AS category, j.jobType AS jobType, j.location AS location "
+            + "FROM JobApplication a JOIN a.job j WHERE a.applicant.id = :applicantId")
+    List<JobFeatures> findAppliedJobFeatures(@Param("applicantId") Long applicantId);
+
+    // Unbounded export cursor; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CARD_SELECT + "WHERE j.id = :jobId ORDER BY a.appliedAt DESC, a.id DESC")
+    Stream<JobApplicationResponse> streamByJobId(@Param("jobId") Long jobId);
 }
@@ -1,19 +1,36 @@
 package com.blog.backend.repository;
 
+import com.blog.backend.dto.JobCardResponse;
 import com.blog.backend.model.Job;
 import com.blog.backend.model.JobCategory;
 import com.blog.backend.model.JobStatus;
+import com.blog.backend.model.JobType;
 import com.blog.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long> {
 
+    // Card projection shared by the keyset-paginated listing queries below
+    String CARD_SELECT = "SELECT new com.blog.backend.dto.JobCardResponse(j.id, j.title, j.description, "
+            + "j.category, j.jobType, j.location, j.salaryMin, j.salaryMax, j.companyName, j.companyLogo, "
+            + "j.deadline, j.status, j.applicantsCount, j.createdAt) FROM Job j ";
+
+    // Keyset predicate and ordering on (createdAt, id); callers pass size + 1 as the limit
+    String CARD_KEYSET = " AND (j.createdAt < :createdAt OR (j.createdAt = :createdAt AND j.id < :id))"
+            + " ORDER BY j.createdAt DESC, j.id DESC";
+
     // Find all active jobs
     List<Job> findByStatusOrderByCreatedAtDesc(JobStatus status);
 
@@ -32,4 +49,81 @@ public interface JobRepository extends JpaRepository<Job, Long> {
 
     // Count active jobs by employer
     long countByPostedByAndStatus(User postedBy, JobStatus status);
+
+    // Keyset-paginated card listings
+    @Query(CARD_SELECT + "WHERE j.status = :status" + CARD_KEYSET)
+    List<JobCardResponse> findCardsByStatus(@Param("status") JobStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(CARD_SELECT + "WHERE j.status = :status AND j.category = :category" + CARD_KEYSET)
+    List<JobCardResponse> findCardsByCategoryAndStatus(@Param("category") JobCategory category,
+            @Param("status") JobStatus status, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable limit);
+
+    @Query(CARD_SELECT + "WHERE j.status = :status AND (LOWER(j.title) LIKE LOWER(CONCAT('%', :keyword, '%')) "
+            + "OR LOWER(j.companyName) LIKE LOWER(CONCAT('%', :keyword, '%')))" + CARD_KEYSET)
+    List<JobCardResponse> searchCards(@Param("keyword") String keyword, @Param("status") JobStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(CARD_SELECT + "WHERE j.status = :status AND NOT EXISTS (SELECT a.id FROM JobApplication a "
+            + "WHERE a.job = j AND a.applicant.id = :applicantId)" + CARD_KEYSET)
+    List<JobCardResponse> findCardsByStatusNotAppliedBy(@Param("status") JobStatus status,
+            @Param("applicantId") Long applicantId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable limit);
+
+    @Query(CARD_SELECT + "WHERE j.postedBy = :postedBy" + CARD_KEYSET)
+    List<JobCardResponse> findCardsByPostedBy(@Param("postedBy") User postedBy,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    // Atomic counter update, no read-modify-write on the entity
+    @Modifying
+    @Query("UPDATE Job j SET j.applicantsCount = COALESCE(j.applicantsCount, 0) + 1 WHERE j.id = :id")
+    int incrementApplicantsCount(@Param("id") Long id);
+
+    // Deadline-only projection used to seed the expiry scheduler
+    interface JobDeadline {
+        Long getId();
+
+        LocalDate getDeadline();
+    }
+
+    List<JobDeadline> findByStatusAndDeadlineIsNotNull(JobStatus status);
+
+    // Batched close of expired jobs; each call runs in its own transaction
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.blog.backend.model.JobStatus.CLOSED, j.updatedAt = :now "
+            + "WHERE j.id IN :ids AND j.status = com.blog.backend.model.JobStatus.ACTIVE")
+    int closeActiveJobs(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query(CARD_SELECT + "WHERE j.id IN :ids")
+    List<JobCardResponse> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Fields the recommendation engine turns into feature vectors
+    interface JobFeatures {
+        Long getId();
+
+        JobCategory getCategory();
+
+        JobType getJobType();
+
+        String getLocation();
+    }
+
+    List<JobFeatures> findFeaturesByStatus(JobStatus status);
+
+    // Text fields the similar-jobs index is built from
+    interface JobText {
+        Long getId();
+
+        JobCategory getCategory();
+
+        String getTitle();
+
+        String getDescription();
+
+        String getRequirements();
+    }
+
+    List<JobText> findTextByStatus(JobStatus status);
 }
@@ -0,0 +1,60 @@
+package com.blog.backend.security;
+
+import com.blog.backend.model.User;
+import com.blog.backend.service.PermissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Enforces @RequiresCapability on controller methods with a single bit test
+ * against the caller's role.
+ */
+@Component
+public class CapabilityInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod method))
+            return true;
+        RequiresCapability required = method.getMethodAnnotation(RequiresCapability.class);
+        if (required == null)
+            return true;
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Authentication required");
+            return false;
+        }
+        if (!permissionService.has(user, required.value())) {
+            reject(response, HttpStatus.FORBIDDEN, required.message());
+            return false;
+        }
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+}
@@ -0,0 +1,16 @@
+package com.blog.backend.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the authenticated User that JwtAuthenticationFilter already resolved,
+ * or null for anonymous requests. The instance is shared through the principal
+ * cache: read it freely, but load a fresh copy before changing it.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,14 @@
+package com.blog.backend.security;
+
+import java.security.PublicKey;
+import java.util.Map;
+
+/**
+ * Source of the public keys that sign Google ID tokens, keyed by key id
+ * ("kid" header). GoogleAuthService caches the result and calls this again
+ * only on refresh or when a token names an unknown key.
+ */
+public interface GoogleKeySource {
+
+    Map<String, PublicKey> loadKeys() throws Exception;
+}
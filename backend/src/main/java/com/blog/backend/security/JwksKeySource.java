@@ -0,0 +1,56 @@
+package com.blog.backend.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads RSA signing keys from a JWKS document. The location is any Spring
+ * resource: Google's certs endpoint by default, or a file:/classpath: JWKS
+ * for tests and air-gapped deployments.
+ */
+@Component
+public class JwksKeySource implements GoogleKeySource {
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${google.jwks.location:https://www.googleapis.com/oauth2/v3/certs}")
+    private String location;
+
+    @Override
+    public Map<String, PublicKey> loadKeys() throws Exception {
+        Resource resource = resourceLoader.getResource(location);
+        JsonNode jwks;
+        try (InputStream in = resource.getInputStream()) {
+            jwks = objectMapper.readTree(in);
+        }
+
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode key : jwks.path("keys")) {
+            if (!"RSA".equals(key.path("kty").asText()))
+                continue;
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("e").asText()));
+            keys.put(key.path("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        return keys;
+    }
+}
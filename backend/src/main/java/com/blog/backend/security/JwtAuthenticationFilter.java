@@ -1,7 +1,7 @@
 package com.blog.backend.security;
 
 import com.blog.backend.model.User;
-import com.blog.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,7 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserPrincipalCache userPrincipalCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
@@ -38,11 +38,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (jwtUtil.validateToken(token)) {
-                String email = jwtUtil.getEmailFromToken(token);
-                String role = jwtUtil.getRoleFromToken(token);
+            // One verification per request; repeat tokens are served from JwtUtil's cache
+            Claims claims = jwtUtil.parseToken(token);
+            if (claims != null) {
+                String email = claims.getSubject();
+                String role = claims.get("role", String.class);
 
-                Optional<User> userOpt = userRepository.findByEmail(email);
+                Optional<User> userOpt = userPrincipalCache.get(email);
 
                 if (userOpt.isPresent() && userOpt.get().getActive()) {
                     User user = userOpt.get();
@@ -1,12 +1,22 @@
 package com.blog.backend.security;
 
+import com.blog.backend.service.TokenRevocationService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -17,8 +27,27 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Max number of recently verified tokens kept, keyed by SHA-256 of the token
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private Map<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > verifiedCacheSize;
+            }
+        };
     }
 
     public String generateToken(String email, Long userId, String role) {
@@ -26,54 +55,93 @@ public class JwtUtil {
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .claim("userId", userId)
                 .claim("role", role)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verify the token and return its claims, or null if it is invalid,
+     * expired or revoked. A token verified before is answered from the cache
+     * until its exp claim passes, skipping the signature check and JSON parse;
+     * the revocation check runs either way.
+     */
+    public Claims parseToken(String token) {
+        if (token == null || token.isEmpty())
+            return null;
+
+        String cacheKey = sha256(token);
+        Claims cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(cacheKey);
+        }
+        if (cached != null) {
+            if (!isExpired(cached))
+                return tokenRevocationService.isRevoked(revocationId(cached, cacheKey)) ? null : cached;
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(cacheKey);
+            }
+            return null;
+        }
 
-        return claims.getSubject();
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(cacheKey, claims);
+            }
+            return tokenRevocationService.isRevoked(revocationId(claims, cacheKey)) ? null : claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * The id a verified token is revoked under: its jti, or for tokens issued
+     * before they carried one, the SHA-256 of the token itself.
+     */
+    public String revocationId(String token, Claims claims) {
+        return revocationId(claims, sha256(token));
+    }
 
-        return claims.get("userId", Long.class);
+    private static String revocationId(Claims claims, String tokenHash) {
+        return claims.getId() != null ? claims.getId() : tokenHash;
     }
 
-    public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String getEmailFromToken(String token) {
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public Long getUserIdFromToken(String token) {
+        Claims claims = parseToken(token);
+        return claims != null ? claims.get("userId", Long.class) : null;
+    }
 
-        return claims.get("role", String.class);
+    public String getRoleFromToken(String token) {
+        Claims claims = parseToken(token);
+        return claims != null ? claims.get("role", String.class) : null;
     }
 
     public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String sha256(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
@@ -0,0 +1,70 @@
+package com.blog.backend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission control for password endpoints. Each client IP and each account
+ * email gets its own token bucket, so one noisy client or a credential-stuffing
+ * run against one account is throttled before any password hashing happens.
+ * Bucket maps are bounded; the least recently used buckets are dropped first.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final int MAX_TRACKED_KEYS = 50_000;
+    private static final long MINUTE_MILLIS = 60_000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.login.ip-attempts-per-minute:20}")
+    private long ipAttemptsPerMinute;
+
+    @Value("${auth.login.account-attempts-per-minute:5}")
+    private long accountAttemptsPerMinute;
+
+    private final Map<String, TokenBucket> ipBuckets = boundedMap();
+    private final Map<String, TokenBucket> accountBuckets = boundedMap();
+
+    /**
+     * Take a token for this client IP. Returns 0 if allowed, otherwise the
+     * number of seconds the client should wait.
+     */
+    public long acquireForIp(String ip) {
+        return acquire(ipBuckets, ip, ipAttemptsPerMinute, "ip_limit");
+    }
+
+    /**
+     * Take a token for this account. Returns 0 if allowed, otherwise the
+     * number of seconds the client should wait.
+     */
+    public long acquireForAccount(String email) {
+        return acquire(accountBuckets, email.trim().toLowerCase(), accountAttemptsPerMinute, "account_limit");
+    }
+
+    private long acquire(Map<String, TokenBucket> buckets, String key, long perMinute, String reason) {
+        TokenBucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(perMinute, perMinute, MINUTE_MILLIS));
+        }
+        if (bucket.tryConsume())
+            return 0;
+        meterRegistry.counter("auth.login.rejected", "reason", reason).increment();
+        return bucket.secondsUntilRefill();
+    }
+
+    private static Map<String, TokenBucket> boundedMap() {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > MAX_TRACKED_KEYS;
+            }
+        };
+    }
+}
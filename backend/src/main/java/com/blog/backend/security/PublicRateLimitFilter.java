@@ -0,0 +1,179 @@
+package com.blog.backend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Throttles the public read endpoints (post listing/search, SEO feeds and the
+ * file tools) before they reach the database or the converters.
+ *
+ * Each endpoint group has two token buckets in play for a request: one for
+ * the client IP within that group, and one shared by every client of the
+ * group, which caps the total load a group can put on the server. Per-IP
+ * buckets live in a ConcurrentHashMap; a bucket that has refilled completely
+ * carries no state, so the periodic sweep drops it. Rejected requests get 429
+ * with Retry-After and are counted as ratelimit.throttled{group,scope}.
+ *
+ * The client IP is request.getRemoteAddr(). Behind the reverse proxy that is
+ * only the real client because server.forward-headers-strategy=native makes
+ * Tomcat take it from X-Forwarded-For, and only when the request comes from
+ * a trusted proxy (server.tomcat.remoteip.internal-proxies). Without that,
+ * every visitor would share the proxy's bucket.
+ */
+@Component
+public class PublicRateLimitFilter extends OncePerRequestFilter {
+
+    private static final long MINUTE_MILLIS = 60_000;
+    // An over-full map triggers at most one inline sweep per second
+    private static final long MIN_INLINE_SWEEP_INTERVAL_MS = 1_000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.public.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.public.max-tracked-clients:100000}")
+    private int maxTrackedClients;
+
+    @Value("${rate-limit.public.posts.per-ip-per-minute:120}")
+    private long postsPerIp;
+
+    @Value("${rate-limit.public.posts.total-per-minute:6000}")
+    private long postsTotal;
+
+    @Value("${rate-limit.public.seo.per-ip-per-minute:30}")
+    private long seoPerIp;
+
+    @Value("${rate-limit.public.seo.total-per-minute:600}")
+    private long seoTotal;
+
+    @Value("${rate-limit.public.tool-jobs.per-ip-per-minute:120}")
+    private long toolJobsPerIp;
+
+    @Value("${rate-limit.public.tool-jobs.total-per-minute:6000}")
+    private long toolJobsTotal;
+
+    @Value("${rate-limit.public.tools.per-ip-per-minute:20}")
+    private long toolsPerIp;
+
+    @Value("${rate-limit.public.tools.total-per-minute:600}")
+    private long toolsTotal;
+
+    private List<EndpointGroup> groups;
+
+    // "group|ip" -> bucket
+    private final ConcurrentMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private volatile long lastSweep;
+
+    @PostConstruct
+    void init() {
+        groups = List.of(
+                new EndpointGroup("posts", "/api/posts", true, postsPerIp, postsTotal),
+                new EndpointGroup("seo", "/api/seo", false, seoPerIp, seoTotal),
+                // Job status polling is cheap; checked before the general tools group
+                new EndpointGroup("tool-jobs", "/api/tools/jobs", false, toolJobsPerIp, toolJobsTotal),
+                new EndpointGroup("tools", "/api/tools", false, toolsPerIp, toolsTotal));
+        meterRegistry.gaugeMapSize("ratelimit.tracked.clients", List.of(), clientBuckets);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        EndpointGroup group = match(request);
+        if (group != null) {
+            long retryAfter = acquire(group, request.getRemoteAddr());
+            if (retryAfter > 0) {
+                response.setStatus(429);
+                response.setHeader("Retry-After", String.valueOf(retryAfter));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Too many requests. Try again in "
+                        + retryAfter + " seconds.\"}");
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drop client buckets that have refilled completely; they would be
+     * recreated in the same state on the next request.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.public.sweep-interval-ms:60000}")
+    public void evictIdleClients() {
+        lastSweep = System.currentTimeMillis();
+        clientBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    private EndpointGroup match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (EndpointGroup group : groups) {
+            if ((path.equals(group.prefix) || path.startsWith(group.prefix + "/"))
+                    && (!group.getOnly || "GET".equals(request.getMethod()))) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private long acquire(EndpointGroup group, String ip) {
+        if (group.perIp > 0) {
+            if (clientBuckets.size() >= maxTrackedClients
+                    && System.currentTimeMillis() - lastSweep >= MIN_INLINE_SWEEP_INTERVAL_MS) {
+                evictIdleClients();
+            }
+            TokenBucket bucket = clientBuckets.computeIfAbsent(group.name + "|" + ip,
+                    k -> new TokenBucket(group.perIp, group.perIp, MINUTE_MILLIS));
+            if (!bucket.tryConsume()) {
+                meterRegistry.counter("ratelimit.throttled", "group", group.name, "scope", "ip").increment();
+                return bucket.secondsUntilRefill();
+            }
+        }
+        if (group.total != null && !group.total.tryConsume()) {
+            meterRegistry.counter("ratelimit.throttled", "group", group.name, "scope", "route").increment();
+            return group.total.secondsUntilRefill();
+        }
+        return 0;
+    }
+
+    private static final class EndpointGroup {
+        final String name;
+        final String prefix;
+        final boolean getOnly;
+        final long perIp;
+        final TokenBucket total;
+
+        EndpointGroup(String name, String prefix, boolean getOnly, long perIp, long totalPerMinute) {
+            this.name = name;
+            this.prefix = prefix;
+            this.getOnly = getOnly;
+            this.perIp = perIp;
+            // A limit of 0 turns that bucket off
+            this.total = totalPerMinute > 0 ? new TokenBucket(totalPerMinute, totalPerMinute, MINUTE_MILLIS) : null;
+        }
+    }
+}
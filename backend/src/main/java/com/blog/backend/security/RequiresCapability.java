@@ -0,0 +1,23 @@
+package com.blog.backend.security;
+
+import com.blog.backend.model.Capability;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts a controller method to authenticated users whose role has the
+ * given capability. Checked by CapabilityInterceptor before the method runs:
+ * anonymous callers get 401, others without the capability get 403 with the
+ * given message.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresCapability {
+
+    Capability value();
+
+    String message() default "You don't have permission to perform this action";
+}
@@ -0,0 +1,57 @@
+package com.blog.backend.security;
+
+/**
+ * Classic token bucket: holds up to capacity tokens and refills continuously
+ * at a fixed rate. Each request takes one token; an empty bucket rejects.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(long capacity, long refillTokens, long refillPeriodMillis) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) refillTokens / (refillPeriodMillis * 1_000_000L);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take one token if available.
+     */
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whole seconds until the next token is available (at least 1), for a
+     * Retry-After header.
+     */
+    public synchronized long secondsUntilRefill() {
+        refill();
+        double missing = Math.max(0, 1 - tokens);
+        return Math.max(1, (long) Math.ceil(missing / tokensPerNano / 1_000_000_000d));
+    }
+
+    /**
+     * A full bucket carries no state worth keeping and can be dropped.
+     */
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
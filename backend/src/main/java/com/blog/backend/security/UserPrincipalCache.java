@@ -0,0 +1,109 @@
+package com.blog.backend.security;
+
+import com.blog.backend.model.User;
+import com.blog.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-based cache of authenticated users, keyed by email with a
+ * userId index for invalidation. The JWT filter resolves the principal from
+ * here instead of querying the users table on every request.
+ *
+ * Cached users are shared between requests and must be treated as read-only;
+ * code that changes a user loads a fresh copy from the repository. Every
+ * update or delete of a User evicts its entry (see UserPrincipalCacheListener),
+ * and the TTL bounds staleness for changes made outside JPA.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${auth.principal-cache.size:10000}")
+    private int maxSize;
+
+    @Value("${auth.principal-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    // Email -> cached user, least recently used evicted first
+    private final Map<String, Entry> byEmail = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > maxSize) {
+                byId.remove(eldest.getValue().user.getId());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // UserId -> email, guarded by the byEmail lock
+    private final Map<Long, String> byId = new HashMap<>();
+
+    /**
+     * The user with this email, from the cache or the database.
+     */
+    public Optional<User> get(String email) {
+        long now = System.currentTimeMillis();
+        synchronized (byEmail) {
+            Entry entry = byEmail.get(email);
+            if (entry != null && entry.expiresAt > now)
+                return Optional.of(entry.user);
+        }
+
+        Optional<User> userOpt = userRepository.findByEmail(email);
+        userOpt.ifPresent(user -> {
+            synchronized (byEmail) {
+                byEmail.put(email, new Entry(user, now + ttlMillis));
+                byId.put(user.getId(), email);
+            }
+        });
+        return userOpt;
+    }
+
+    /**
+     * Drop the cached user. Inside a transaction the entry is dropped again
+     * after commit, so a request that reloaded the old row in between does not
+     * keep it for a full TTL.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long userId) {
+        synchronized (byEmail) {
+            String email = byId.remove(userId);
+            if (email != null) {
+                byEmail.remove(email);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
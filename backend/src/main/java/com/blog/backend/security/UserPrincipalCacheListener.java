@@ -0,0 +1,28 @@
+package com.blog.backend.security;
+
+import com.blog.backend.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA listener that evicts a user from the principal cache whenever the row
+ * changes or is deleted, whichever controller or service made the change
+ * (role updates, profile edits, deactivation, deletion).
+ * Instantiated by Hibernate through Spring's bean container.
+ */
+public class UserPrincipalCacheListener {
+
+    // Lazy: the listener is created while the EntityManagerFactory is still
+    // being built, before the cache's repository dependency can exist
+    @Autowired
+    @Lazy
+    private UserPrincipalCache userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userPrincipalCache.invalidate(user.getId());
+    }
+}
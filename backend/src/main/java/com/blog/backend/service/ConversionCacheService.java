@@ -0,0 +1,341 @@
+package com.blog.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Disk cache for tool conversion results, keyed by SHA-256 of the endpoint,
+ * its parameters and the uploaded file contents. A retried or double-clicked
+ * conversion is answered from disk instead of being recomputed.
+ *
+ * Results are files under tools.cache.dir; an in-memory LRU index maps keys
+ * to files and evicts the least recently used ones once the total size passes
+ * tools.cache.max-bytes. The index is not persisted, so result files left
+ * by a previous run are deleted on startup; nothing else in the directory is
+ * touched. Hits are sent with Tomcat's sendfile when the connector
+ * supports it, so the bytes go from the page cache to the socket without
+ * passing through the JVM.
+ *
+ * A hit may still be on its way to the client when its entry is evicted or
+ * replaced; sendfile only opens the file after the request returns. Every
+ * stored result therefore gets its own file, and files that leave the index
+ * are deleted by a sweep once tools.cache.delete-grace-ms has passed, not
+ * straight away.
+ */
+@Service
+public class ConversionCacheService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Result files are "<64 hex chars of key><random>.bin"
+    private static final Pattern RESULT_FILE = Pattern.compile("[0-9a-f]{64}.*\\.bin");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tools.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tools.cache.dir:${java.io.tmpdir}/tool-cache}")
+    private String cacheDir;
+
+    @Value("${tools.cache.max-bytes:1073741824}")
+    private long maxBytes;
+
+    @Value("${tools.cache.max-entry-bytes:104857600}")
+    private long maxEntryBytes;
+
+    @Value("${tools.cache.delete-grace-ms:60000}")
+    private long deleteGraceMillis;
+
+    private Path directory;
+    private long totalBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private Counter bytesSaved;
+
+    // key -> cached result, least recently used first
+    private final LinkedHashMap<String, CachedResult> index = new LinkedHashMap<>(256, 0.75f, true);
+
+    // Files no longer in the index, oldest first, each with the time it left; guarded by index
+    private final Deque<Map.Entry<Path, Long>> removed = new ArrayDeque<>();
+
+    /**
+     * A cached response: the file holding the body plus the headers needed
+     * to replay it, including the tool's X-* report headers.
+     */
+    public static final class CachedResult {
+        final Path path;
+        final String contentType;
+        final String contentDisposition;
+        final Map<String, String> reportHeaders;
+        final long size;
+
+        CachedResult(Path path, String contentType, String contentDisposition, Map<String, String> reportHeaders,
+                long size) {
+            this.path = path;
+            this.contentType = contentType;
+            this.contentDisposition = contentDisposition;
+            this.reportHeaders = reportHeaders;
+            this.size = size;
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Paths.get(cacheDir).toAbsolutePath();
+        Files.createDirectories(directory);
+        deleteStaleResults();
+
+        meterRegistry.gauge("tools.cache.size.bytes", this, c -> c.currentSize());
+        meterRegistry.gauge("tools.cache.entries", this, c -> c.entryCount());
+        meterRegistry.gauge("tools.cache.hit.ratio", this, c -> {
+            long total = c.hits.get() + c.misses.get();
+            return total == 0 ? 0 : (double) c.hits.get() / total;
+        });
+        bytesSaved = meterRegistry.counter("tools.cache.bytes.saved");
+    }
+
+    private void deleteStaleResults() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> RESULT_FILE.matcher(file.getFileName().toString()).matches() && Files.isRegularFile(file))) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The X-* headers of a tool response (sizes, counts of what was removed),
+     * which have to be replayed along with the body.
+     */
+    public static Map<String, String> reportHeaders(HttpHeaders headers) {
+        Map<String, String> report = new LinkedHashMap<>();
+        for (String name : headers.keySet()) {
+            if (name.regionMatches(true, 0, "X-", 0, 2) && !name.equalsIgnoreCase("X-Cache"))
+                report.put(name, headers.getFirst(name));
+        }
+        return Collections.unmodifiableMap(report);
+    }
+
+    /**
+     * Cache key for a tool request: SHA-256 over the path, every request
+     * parameter and the contents of every uploaded file.
+     */
+    public String key(HttpServletRequest request) throws IOException {
+        MessageDigest digest = sha256();
+        update(digest, request.getRequestURI());
+
+        for (Map.Entry<String, String[]> param : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            update(digest, param.getKey());
+            for (String value : param.getValue()) {
+                update(digest, value);
+            }
+        }
+
+        if (request instanceof MultipartHttpServletRequest multipart) {
+            for (Map.Entry<String, List<MultipartFile>> part : new TreeMap<>(multipart.getMultiFileMap()).entrySet()) {
+                update(digest, part.getKey());
+                for (MultipartFile file : part.getValue()) {
+                    update(digest, String.valueOf(file.getSize()));
+                    try (InputStream in = file.getInputStream()) {
+                        byte[] buffer = new byte[BUFFER_SIZE];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            digest.update(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Look up a result, counting the hit or miss.
+     */
+    public CachedResult lookup(String key) {
+        CachedResult result;
+        synchronized (index) {
+            result = index.get(key);
+        }
+        if (result == null) {
+            misses.incrementAndGet();
+            meterRegistry.counter("tools.cache.requests", "result", "miss").increment();
+            return null;
+        }
+        hits.incrementAndGet();
+        meterRegistry.counter("tools.cache.requests", "result", "hit").increment();
+        bytesSaved.increment(result.size);
+        return result;
+    }
+
+    /**
+     * Store a freshly computed result and evict old ones past the size cap.
+     */
+    public void store(String key, byte[] body, String contentType, String contentDisposition,
+            Map<String, String> reportHeaders) {
+        if (body.length == 0 || body.length > maxEntryBytes)
+            return;
+        try {
+            // A fresh file per result, so a replaced entry's file stays intact for whoever is sending it
+            Path file = Files.createTempFile(directory, key, ".bin");
+            Files.write(file, body);
+            add(key, new CachedResult(file, contentType, contentDisposition, reportHeaders, body.length));
+        } catch (IOException e) {
+            System.err.println("Failed to cache conversion result: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Store a result that was written to a file. The file is copied; the
+     * caller still owns it.
+     */
+    public void store(String key, Path result, String contentType, String contentDisposition,
+            Map<String, String> reportHeaders) {
+        try {
+            long size = Files.size(result);
+            if (size == 0 || size > maxEntryBytes)
+                return;
+            Path file = Files.createTempFile(directory, key, ".bin");
+            Files.copy(result, file, StandardCopyOption.REPLACE_EXISTING);
+            add(key, new CachedResult(file, contentType, contentDisposition, reportHeaders, size));
+        } catch (IOException e) {
+            System.err.println("Failed to cache conversion result: " + e.getMessage());
+        }
+    }
+
+    private void add(String key, CachedResult result) {
+        synchronized (index) {
+            CachedResult previous = index.put(key, result);
+            if (previous != null) {
+                totalBytes -= previous.size;
+                retire(previous);
+            }
+            totalBytes += result.size;
+
+            Iterator<Map.Entry<String, CachedResult>> eldest = index.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, CachedResult> entry = eldest.next();
+                if (entry.getKey().equals(key))
+                    continue;
+                totalBytes -= entry.getValue().size;
+                retire(entry.getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Delete the files of removed entries once nothing can still be sending
+     * them: a copy in progress has the file open already, and sendfile opens
+     * it as soon as the request returns. A file that cannot be deleted yet is
+     * retried on the next sweep.
+     */
+    @Scheduled(fixedDelayString = "${tools.cache.sweep-interval-ms:30000}")
+    public void deleteRemovedFiles() {
+        long cutoff = System.currentTimeMillis() - deleteGraceMillis;
+        List<Path> due = new ArrayList<>();
+        synchronized (index) {
+            while (!removed.isEmpty() && removed.peekFirst().getValue() <= cutoff) {
+                due.add(removed.pollFirst().getKey());
+            }
+        }
+        for (Path file : due) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                synchronized (index) {
+                    removed.addLast(Map.entry(file, System.currentTimeMillis()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a cached result as the full response.
+     */
+    public void serve(CachedResult result, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (result.contentType != null)
+            response.setContentType(result.contentType);
+        if (result.contentDisposition != null)
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, result.contentDisposition);
+        result.reportHeaders.forEach(response::setHeader);
+        response.setHeader("X-Cache", "HIT");
+        response.setContentLengthLong(result.size);
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat sends the file itself once the request returns
+            request.setAttribute("org.apache.tomcat.sendfile.filename", result.path.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", result.size);
+        } else {
+            Files.copy(result.path, response.getOutputStream());
+        }
+    }
+
+    // Called with the index lock held
+    private void retire(CachedResult result) {
+        removed.addLast(Map.entry(result.path, System.currentTimeMillis()));
+    }
+
+    private long currentSize() {
+        synchronized (index) {
+            return totalBytes;
+        }
+    }
+
+    private int entryCount() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Length prefix so ("ab","c") and ("a","bc") hash differently
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
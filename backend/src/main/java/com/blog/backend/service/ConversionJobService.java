@@ -0,0 +1,428 @@
+package com.blog.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+/**
+ * Runs heavy document conversions off the Tomcat request threads.
+ *
+ * Each tool (pdf, word, excel, ppt) has its own fixed-size pool and bounded
+ * queue, so a burst of slow PPT conversions cannot take threads from PDF
+ * work, and a full queue rejects new jobs immediately instead of piling up.
+ * The upload is copied to a temp file when the job is submitted; the result is
+ * written to a temp file and kept for tools.jobs.result-ttl-ms after the job
+ * finishes. Queued and running jobs can be cancelled. Jobs do not survive a
+ * restart, so their files left in tools.jobs.dir are deleted on startup.
+ */
+@Service
+public class ConversionJobService {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    /**
+     * A conversion to run for a job: the stored upload (null for text-only
+     * tools) and the request's other parameters in, the tool's normal
+     * response out.
+     */
+    @FunctionalInterface
+    public interface ToolConversion {
+        ResponseEntity<?> convert(MultipartFile file, Map<String, String> params) throws Exception;
+    }
+
+    /**
+     * State of one submitted job.
+     */
+    public static final class ConversionJob {
+        private final String id = UUID.randomUUID().toString();
+        private final String tool;
+        private final String operation;
+        private final Instant createdAt = Instant.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile Path result;
+        private volatile String contentType;
+        private volatile String contentDisposition;
+        private volatile Map<String, String> reportHeaders = Map.of();
+        private volatile long resultSize;
+        private Path upload;
+        private Future<?> future;
+
+        ConversionJob(String tool, String operation) {
+            this.tool = tool;
+            this.operation = operation;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getTool() {
+            return tool;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public Path getResult() {
+            return result;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getContentDisposition() {
+            return contentDisposition;
+        }
+
+        /**
+         * The tool's X-* report headers, replayed with the result.
+         */
+        public Map<String, String> getReportHeaders() {
+            return reportHeaders;
+        }
+
+        public long getResultSize() {
+            return resultSize;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tools.jobs.dir:${java.io.tmpdir}/tool-jobs}")
+    private String jobsDir;
+
+    @Value("${tools.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${tools.jobs.result-ttl-ms:3600000}")
+    private long resultTtlMillis;
+
+    @Value("${tools.jobs.concurrency.pdf:2}")
+    private int pdfConcurrency;
+
+    @Value("${tools.jobs.concurrency.word:2}")
+    private int wordConcurrency;
+
+    @Value("${tools.jobs.concurrency.excel:2}")
+    private int excelConcurrency;
+
+    @Value("${tools.jobs.concurrency.ppt:1}")
+    private int pptConcurrency;
+
+    // Job files are "<job id>.upload" and "<job id>.result"
+    private static final Pattern JOB_FILE = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(upload|result)");
+
+    private Path directory;
+    private final Map<String, ThreadPoolExecutor> executors = new HashMap<>();
+    private final ConcurrentMap<String, ConversionJob> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Paths.get(jobsDir).toAbsolutePath();
+        Files.createDirectories(directory);
+        deleteStaleFiles();
+
+        executors.put("pdf", executor("pdf", pdfConcurrency));
+        executors.put("word", executor("word", wordConcurrency));
+        executors.put("excel", executor("excel", excelConcurrency));
+        executors.put("ppt", executor("ppt", pptConcurrency));
+        meterRegistry.gaugeMapSize("tools.jobs.tracked", List.of(), jobs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    private void deleteStaleFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> JOB_FILE.matcher(file.getFileName().toString()).matches() && Files.isRegularFile(file))) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Queue a conversion. The upload is copied to a temp file first, since
+     * the request's multipart storage goes away when the request ends.
+     *
+     * @throws RejectedExecutionException if the tool's queue is full
+     */
+    public ConversionJob submit(String tool, String operation, MultipartFile file, Map<String, String> params,
+            ToolConversion conversion) throws IOException {
+        ThreadPoolExecutor executor = executors.get(tool);
+        if (executor == null) {
+            throw new IllegalArgumentException("Unknown tool: " + tool);
+        }
+
+        ConversionJob job = new ConversionJob(tool, operation);
+        MultipartFile stored = null;
+        if (file != null) {
+            job.upload = directory.resolve(job.id + ".upload");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, job.upload, StandardCopyOption.REPLACE_EXISTING);
+            }
+            stored = new StoredUpload(job.upload, file.getName(), file.getOriginalFilename(), file.getContentType());
+        }
+
+        MultipartFile input = stored;
+        Map<String, String> parameters = Map.copyOf(params);
+        jobs.put(job.id, job);
+        try {
+            synchronized (job) {
+                job.future = executor.submit(() -> run(job, input, parameters, conversion));
+            }
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteFiles(job);
+            meterRegistry.counter("tools.jobs.rejected", "tool", tool).increment();
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ConversionJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Cancel a queued or running job. Running conversions are interrupted;
+     * whatever they produce afterwards is discarded.
+     *
+     * @return false if the job had already finished
+     */
+    public boolean cancel(ConversionJob job) {
+        synchronized (job) {
+            if (job.status != Status.QUEUED && job.status != Status.RUNNING)
+                return false;
+            job.status = Status.CANCELLED;
+            job.finishedAt = Instant.now();
+            if (job.future != null)
+                job.future.cancel(true);
+        }
+        // A cancelled queued task would otherwise keep its queue slot until it is polled
+        executors.get(job.tool).purge();
+        deleteFiles(job);
+        meterRegistry.counter("tools.jobs.completed", "tool", job.tool, "status", "cancelled").increment();
+        return true;
+    }
+
+    /**
+     * Drop finished jobs and their files once the result TTL has passed.
+     */
+    @Scheduled(fixedDelayString = "${tools.jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        Instant cutoff = Instant.now().minusMillis(resultTtlMillis);
+        jobs.values().removeIf(job -> {
+            Instant finished = job.finishedAt;
+            if (finished == null || finished.isAfter(cutoff))
+                return false;
+            deleteFiles(job);
+            return true;
+        });
+    }
+
+    private void run(ConversionJob job, MultipartFile input, Map<String, String> params, ToolConversion conversion) {
+        synchronized (job) {
+            if (job.status != Status.QUEUED)
+                return;
+            job.status = Status.RUNNING;
+        }
+        long start = System.nanoTime();
+        Status outcome = Status.FAILED;
+        Path result = directory.resolve(job.id + ".result");
+        try {
+            ResponseEntity<?> response = conversion.convert(input, params);
+            Object body = response.getBody();
+            long size = -1;
+            if (response.getStatusCode().is2xxSuccessful()) {
+                // A result already in a file is moved into place, not read
+                if (body instanceof TempFileResource file) {
+                    file.moveTo(result);
+                    size = Files.size(result);
+                } else if (body instanceof byte[] bytes) {
+                    Files.write(result, bytes);
+                    size = bytes.length;
+                }
+            }
+            if (size >= 0) {
+                HttpHeaders headers = response.getHeaders();
+                synchronized (job) {
+                    if (job.status == Status.RUNNING) {
+                        job.result = result;
+                        job.resultSize = size;
+                        job.contentType = headers.getContentType() == null ? null : headers.getContentType().toString();
+                        job.contentDisposition = headers.getFirst(HttpHeaders.CONTENT_DISPOSITION);
+                        job.reportHeaders = ConversionCacheService.reportHeaders(headers);
+                        job.status = outcome = Status.DONE;
+                    }
+                }
+            } else {
+                job.error = errorMessage(body);
+            }
+        } catch (Exception e) {
+            job.error = "Conversion failed: " + e.getMessage();
+        } finally {
+            synchronized (job) {
+                if (job.status == Status.RUNNING) {
+                    job.status = outcome;
+                }
+                if (job.finishedAt == null) {
+                    job.finishedAt = Instant.now();
+                }
+            }
+            if (job.status != Status.DONE) {
+                deleteQuietly(result);
+            }
+            deleteQuietly(job.upload);
+            if (job.status != Status.CANCELLED) {
+                meterRegistry.timer("tools.jobs.duration", "tool", job.tool, "status", job.status.name().toLowerCase())
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                meterRegistry.counter("tools.jobs.completed", "tool", job.tool,
+                        "status", job.status.name().toLowerCase()).increment();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor executor(String tool, int threads) {
+        ThreadPoolExecutor executor = WorkerPools.fixed("conversion-" + tool, threads,
+                new ArrayBlockingQueue<>(queueCapacity));
+        meterRegistry.gauge("tools.jobs.queue.size", Tags.of("tool", tool), executor, e -> e.getQueue().size());
+        return executor;
+    }
+
+    private static String errorMessage(Object body) {
+        if (body instanceof Map<?, ?> map && map.get("error") != null)
+            return String.valueOf(map.get("error"));
+        if (body instanceof String text)
+            return text;
+        return "Conversion failed";
+    }
+
+    private void deleteFiles(ConversionJob job) {
+        deleteQuietly(job.upload);
+        deleteQuietly(job.result);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null)
+            return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * A MultipartFile backed by the job's copy of the upload, so tool code
+     * written against MultipartFile runs unchanged.
+     */
+    private static final class StoredUpload implements MultipartFile {
+        private final Path path;
+        private final String name;
+        private final String originalFilename;
+        private final String contentType;
+
+        StoredUpload(Path path, String name, String originalFilename, String contentType) {
+            this.path = path;
+            this.name = name;
+            this.originalFilename = originalFilename;
+            this.contentType = contentType;
+        }
+
+        @Override
+        @NonNull
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        @NonNull
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        @NonNull
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(@NonNull File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
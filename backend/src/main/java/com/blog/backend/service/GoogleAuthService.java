@@ -1,38 +1,145 @@
 package com.blog.backend.service;
 
+import com.blog.backend.security.GoogleKeySource;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Verifies Google ID tokens locally.
+ *
+ * The signing keys come from a pluggable GoogleKeySource (Google's JWKS
+ * endpoint by default, or a local JWKS file) and are kept in memory. They are
+ * reloaded after google.jwks.refresh-interval-ms, or early when a token names
+ * a key id we have not seen (key rotation). A token that verified recently is
+ * answered from a short-lived cache, so a retried sign-in costs no signature
+ * check. Verification time is recorded as the auth.google.verify timer.
+ */
 @Service
 public class GoogleAuthService {
 
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+    private static final long CLOCK_SKEW_SECONDS = 300;
+    // An unknown key id or a failing key source triggers at most one reload per minute
+    private static final long MIN_KEY_RELOAD_INTERVAL_MS = 60_000;
+    private static final int MAX_VERIFIED_TOKENS = 10_000;
+
     @Value("${google.client.id}")
     private String clientId;
 
-    private final GoogleIdTokenVerifier verifier;
+    @Value("${google.jwks.refresh-interval-ms:3600000}")
+    private long keyRefreshIntervalMillis;
 
-    public GoogleAuthService(@Value("${google.client.id}") String clientId) {
-        this.verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), new GsonFactory())
-                .setAudience(Collections.singletonList(clientId))
-                .build();
-    }
+    @Value("${google.verified-token-ttl-ms:300000}")
+    private long verifiedTokenTtlMillis;
+
+    @Autowired
+    private GoogleKeySource keySource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile Map<String, PublicKey> publicKeys = Map.of();
+    private volatile long keysLoadedAt;
+    private long lastKeyLoadAttempt;
+    private final Object keyLock = new Object();
+
+    // SHA-256 of the token -> verified payload, least recently used evicted first
+    private final Map<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > MAX_VERIFIED_TOKENS;
+        }
+    };
 
     public GoogleIdToken.Payload verifyToken(String idTokenString) {
+        long start = System.nanoTime();
+        String result = "invalid";
         try {
-            GoogleIdToken idToken = verifier.verify(idTokenString);
-            if (idToken != null) {
-                return idToken.getPayload();
+            String cacheKey = sha256(idTokenString);
+            VerifiedToken cached;
+            synchronized (verifiedTokens) {
+                cached = verifiedTokens.get(cacheKey);
             }
-            return null;
+            if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+                result = "cached";
+                return cached.payload;
+            }
+
+            GoogleIdToken idToken = GoogleIdToken.parse(JSON_FACTORY, idTokenString);
+            PublicKey key = publicKey(idToken.getHeader().getKeyId());
+            if (key == null || !idToken.verifySignature(key)
+                    || !idToken.verifyIssuer(ISSUERS)
+                    || !idToken.verifyAudience(List.of(clientId))
+                    || !idToken.verifyTime(System.currentTimeMillis(), CLOCK_SKEW_SECONDS)) {
+                return null;
+            }
+
+            GoogleIdToken.Payload payload = idToken.getPayload();
+            long expiresAt = Math.min(payload.getExpirationTimeSeconds() * 1000,
+                    System.currentTimeMillis() + verifiedTokenTtlMillis);
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(cacheKey, new VerifiedToken(payload, expiresAt));
+            }
+            result = "valid";
+            return payload;
         } catch (Exception e) {
             System.err.println("Error verifying Google token: " + e.getMessage());
             return null;
+        } finally {
+            meterRegistry.timer("auth.google.verify", "result", result)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reload the signing keys now. The current keys stay in place if the key
+     * source fails.
+     */
+    public void refreshKeys() {
+        synchronized (keyLock) {
+            lastKeyLoadAttempt = System.currentTimeMillis();
+            try {
+                Map<String, PublicKey> keys = keySource.loadKeys();
+                publicKeys = Map.copyOf(keys);
+                keysLoadedAt = System.currentTimeMillis();
+                System.out.println("Google sign-in: loaded " + keys.size() + " signing keys");
+            } catch (Exception e) {
+                System.err.println("Error loading Google signing keys: " + e.getMessage());
+            }
+        }
+    }
+
+    private PublicKey publicKey(String keyId) {
+        if (System.currentTimeMillis() - keysLoadedAt >= keyRefreshIntervalMillis) {
+            reloadKeysIfAllowed();
+        }
+        PublicKey key = publicKeys.get(keyId);
+        if (key == null) {
+            // Possibly a rotated key we have not fetched yet
+            reloadKeysIfAllowed();
+            key = publicKeys.get(keyId);
+        }
+        return key;
+    }
+
+    private void reloadKeysIfAllowed() {
+        synchronized (keyLock) {
+            if (System.currentTimeMillis() - lastKeyLoadAttempt < MIN_KEY_RELOAD_INTERVAL_MS)
+                return;
+            refreshKeys();
         }
     }
 
@@ -51,4 +158,23 @@ public class GoogleAuthService {
     public boolean isEmailVerified(GoogleIdToken.Payload payload) {
         return payload.getEmailVerified();
     }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class VerifiedToken {
+        final GoogleIdToken.Payload payload;
+        final long expiresAt;
+
+        VerifiedToken(GoogleIdToken.Payload payload, long expiresAt) {
+            this.payload = payload;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
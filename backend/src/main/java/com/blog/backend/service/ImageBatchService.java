@@ -0,0 +1,392 @@
+package com.blog.backend.service;
+
+import com.blog.backend.dto.ImageOperation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Applies one list of operations (resize, convert, compress) to many images
+ * and streams the results into a ZIP.
+ *
+ * Images are processed on a shared work-stealing pool. Each request may only
+ * have images.batch.max-in-flight images read or processed at a time; the
+ * request thread stops reading input until finished images have been written
+ * out, so memory stays bounded however large the batch. Results are added to
+ * the ZIP in completion order, followed by manifest.json listing every input
+ * with its output or error.
+ */
+@Service
+public class ImageBatchService {
+
+    private static final Set<String> OPERATION_TYPES = Set.of("resize", "convert", "compress");
+    private static final Set<String> OUTPUT_FORMATS = Set.of("jpeg", "png", "gif", "bmp");
+
+    @Autowired
+    private ImageDecodeService imageDecodeService;
+
+    @Autowired
+    private ImageResizeService imageResizeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${images.batch.threads:0}")
+    private int threads;
+
+    @Value("${images.batch.max-in-flight:0}")
+    private int maxInFlight;
+
+    @Value("${images.batch.max-items:500}")
+    private int maxItems;
+
+    @Value("${images.batch.max-entry-bytes:20971520}")
+    private long maxEntryBytes;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        if (maxInFlight <= 0) {
+            maxInFlight = pool.getParallelism() * 2;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Check an operation list before any streaming starts.
+     *
+     * @throws IllegalArgumentException describing the first invalid operation
+     */
+    public void validate(List<ImageOperation> operations) {
+        for (ImageOperation op : operations) {
+            String type = op.getType() == null ? "" : op.getType().toLowerCase();
+            if (!OPERATION_TYPES.contains(type)) {
+                throw new IllegalArgumentException("Unknown operation: " + op.getType());
+            }
+            if (type.equals("resize")) {
+                int width = op.getWidth() == null ? 0 : op.getWidth();
+                int height = op.getHeight() == null ? 0 : op.getHeight();
+                if (width < 0 || height < 0 || (width == 0 && height == 0)) {
+                    throw new IllegalArgumentException("Resize needs a width or height greater than 0");
+                }
+            }
+            if (type.equals("convert") && !OUTPUT_FORMATS.contains(normalizeFormat(op.getFormat()))) {
+                throw new IllegalArgumentException("Unsupported output format: " + op.getFormat());
+            }
+            if (type.equals("compress") && op.getQuality() != null
+                    && (op.getQuality() <= 0 || op.getQuality() > 1)) {
+                throw new IllegalArgumentException("Quality must be between 0 and 1");
+            }
+        }
+    }
+
+    /**
+     * Process every uploaded image (ZIP uploads are expanded) and write the
+     * results as a ZIP to out.
+     */
+    public void process(List<MultipartFile> files, List<ImageOperation> operations, OutputStream out)
+            throws IOException {
+        Batch batch = new Batch(operations, new ZipOutputStream(out));
+        try {
+            for (MultipartFile file : files) {
+                String name = file.getOriginalFilename() == null ? "image" : file.getOriginalFilename();
+                if (isZip(file, name)) {
+                    readZip(file.getInputStream(), batch);
+                } else {
+                    batch.submit(name, file.getBytes());
+                }
+            }
+            batch.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch interrupted");
+        }
+    }
+
+    private void readZip(InputStream input, Batch batch) throws IOException, InterruptedException {
+        ZipInputStream zip = new ZipInputStream(input);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = fileName(entry.getName());
+            if (entry.isDirectory() || name.isEmpty() || name.startsWith(".") || entry.getName().startsWith("__MACOSX/"))
+                continue;
+            byte[] bytes = zip.readNBytes((int) Math.min(maxEntryBytes + 1, Integer.MAX_VALUE - 8));
+            if (bytes.length > maxEntryBytes) {
+                batch.reject(name, "File is larger than " + maxEntryBytes + " bytes");
+                continue;
+            }
+            batch.submit(name, bytes);
+        }
+    }
+
+    /**
+     * Per-request state: the in-flight limit, the finished-results queue and
+     * the manifest. Only the request thread touches the ZIP stream.
+     */
+    private final class Batch {
+        private final List<ImageOperation> operations;
+        private final ZipOutputStream zip;
+        private final Semaphore slots = new Semaphore(maxInFlight);
+        private final BlockingQueue<Result> finished = new LinkedBlockingQueue<>();
+        private final List<Map<String, Object>> manifest = new ArrayList<>();
+        private final Set<String> usedNames = new HashSet<>();
+        private int accepted;
+        private int pending;
+        private boolean limitReported;
+
+        Batch(List<ImageOperation> operations, ZipOutputStream zip) {
+            this.operations = operations;
+            this.zip = zip;
+        }
+
+        void submit(String name, byte[] bytes) throws IOException, InterruptedException {
+            if (accepted >= maxItems) {
+                if (!limitReported) {
+                    reject(name, "Batch limit of " + maxItems + " images reached; this and later files were skipped");
+                    limitReported = true;
+                }
+                return;
+            }
+            accepted++;
+
+            // Backpressure: write finished images out until a slot frees up
+            while (!slots.tryAcquire()) {
+                write(finished.take());
+            }
+            drainFinished();
+
+            pending++;
+            pool.execute(() -> finished.add(processImage(name, bytes, operations)));
+        }
+
+        void reject(String name, String error) {
+            manifest.add(errorEntry(name, error));
+        }
+
+        void finish() throws IOException, InterruptedException {
+            while (pending > 0) {
+                write(finished.take());
+            }
+            long failed = manifest.stream().filter(item -> "error".equals(item.get("status"))).count();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("succeeded", manifest.size() - failed);
+            summary.put("failed", failed);
+            summary.put("items", manifest);
+            putEntry("manifest.json", objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(summary));
+            zip.finish();
+        }
+
+        private void drainFinished() throws IOException {
+            Result result;
+            while ((result = finished.poll()) != null) {
+                write(result);
+            }
+        }
+
+        private void write(Result result) throws IOException {
+            pending--;
+            try {
+                if (result.error != null) {
+                    manifest.add(errorEntry(result.source, result.error));
+                    return;
+                }
+                String output = uniqueName(result.outputName);
+                putEntry(output, result.bytes);
+
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("source", result.source);
+                item.put("status", "ok");
+                item.put("output", output);
+                item.put("width", result.width);
+                item.put("height", result.height);
+                item.put("bytes", result.bytes.length);
+                manifest.add(item);
+            } finally {
+                slots.release();
+            }
+        }
+
+        private void putEntry(String name, byte[] bytes) throws IOException {
+            // Images are already compressed; store them instead of deflating again
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            ZipEntry entry = new ZipEntry(name);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(bytes);
+            zip.closeEntry();
+            zip.flush();
+        }
+
+        private String uniqueName(String name) {
+            String candidate = name;
+            int dot = name.lastIndexOf('.');
+            for (int i = 1; !usedNames.add(candidate); i++) {
+                candidate = name.substring(0, dot) + "-" + i + name.substring(dot);
+            }
+            return candidate;
+        }
+    }
+
+    private Result processImage(String name, byte[] bytes, List<ImageOperation> operations) {
+        try {
+            // Let the decoder subsample for the first resize instead of decoding at full size
+            ImageOperation firstResize = operations.stream()
+                    .filter(op -> op.getType().equalsIgnoreCase("resize"))
+                    .findFirst().orElse(null);
+            ImageDecodeService.Decoded decoded = firstResize == null
+                    ? imageDecodeService.decode(new ByteArrayInputStream(bytes))
+                    : imageDecodeService.decode(new ByteArrayInputStream(bytes),
+                            dimension(firstResize.getWidth()), dimension(firstResize.getHeight()), null);
+            if (decoded == null) {
+                return Result.failed(name, "Not a readable image");
+            }
+
+            BufferedImage image = decoded.image;
+            String format = OUTPUT_FORMATS.contains(decoded.format) ? decoded.format : "png";
+            Float quality = null;
+
+            for (ImageOperation op : operations) {
+                switch (op.getType().toLowerCase()) {
+                    case "resize" -> {
+                        int[] target = ImageResizeService.targetSize(image.getWidth(), image.getHeight(),
+                                dimension(op.getWidth()), dimension(op.getHeight()));
+                        if ((long) target[0] * target[1] > imageDecodeService.getMaxPixels()) {
+                            throw new ImageTooLargeException(
+                                    "Requested size is too large (" + target[0] + "x" + target[1] + ")");
+                        }
+                        image = imageResizeService.resize(image, target[0], target[1]);
+                    }
+                    case "convert" -> format = normalizeFormat(op.getFormat());
+                    case "compress" -> {
+                        format = "jpeg";
+                        quality = op.getQuality() == null ? 0.8f : op.getQuality();
+                    }
+                }
+            }
+
+            byte[] output = encode(image, format, quality);
+            return Result.succeeded(name, baseName(name) + "." + (format.equals("jpeg") ? "jpg" : format), output,
+                    image.getWidth(), image.getHeight());
+        } catch (ImageTooLargeException | IllegalArgumentException e) {
+            return Result.failed(name, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Batch image " + name + " failed: " + e.getMessage());
+            return Result.failed(name, "Failed to process image: " + e.getMessage());
+        }
+    }
+
+    private static byte[] encode(BufferedImage image, String format, Float quality) throws IOException {
+        if ((format.equals("jpeg") || format.equals("bmp")) && image.getColorModel().hasAlpha()) {
+            image = flatten(image);
+        }
+
+        byte[] bytes = ImageEncoder.encode(image, format, quality);
+        if (bytes == null)
+            throw new IllegalArgumentException("Unsupported output format: " + format);
+        return bytes;
+    }
+
+    // JPEG and BMP have no alpha channel: paint transparent areas white
+    private static BufferedImage flatten(BufferedImage image) {
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    private static String normalizeFormat(String format) {
+        if (format == null)
+            return "";
+        String lower = format.toLowerCase();
+        return lower.equals("jpg") ? "jpeg" : lower;
+    }
+
+    private static int dimension(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static boolean isZip(MultipartFile file, String name) {
+        String type = file.getContentType();
+        return name.toLowerCase().endsWith(".zip")
+                || "application/zip".equals(type) || "application/x-zip-compressed".equals(type);
+    }
+
+    private static String fileName(String path) {
+        return path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+    }
+
+    private static String baseName(String name) {
+        String file = fileName(name);
+        int dot = file.lastIndexOf('.');
+        String base = dot > 0 ? file.substring(0, dot) : file;
+        return base.isEmpty() ? "image" : base;
+    }
+
+    private static Map<String, Object> errorEntry(String source, String error) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("source", source);
+        item.put("status", "error");
+        item.put("error", error);
+        return item;
+    }
+
+    private static final class Result {
+        final String source;
+        final String outputName;
+        final byte[] bytes;
+        final int width;
+        final int height;
+        final String error;
+
+        private Result(String source, String outputName, byte[] bytes, int width, int height, String error) {
+            this.source = source;
+            this.outputName = outputName;
+            this.bytes = bytes;
+            this.width = width;
+            this.height = height;
+            this.error = error;
+        }
+
+        static Result succeeded(String source, String outputName, byte[] bytes, int width, int height) {
+            return new Result(source, outputName, bytes, width, height, null);
+        }
+
+        static Result failed(String source, String error) {
+            return new Result(source, null, null, 0, 0, error);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.blog.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Decodes uploaded images with a bounded pixel budget.
+ *
+ * ImageIO.read always materialises the full-resolution bitmap, so a 10 MB
+ * JPEG can cost 100+ MB of heap before we know what it is. Here the header is
+ * read first; images above images.decode.max-source-pixels are refused
+ * outright, and when the caller only needs a smaller image the reader
+ * subsamples (and optionally crops to a region) while decoding. Whatever is
+ * decoded never exceeds images.decode.max-pixels, so peak heap per request is
+ * about 4 bytes times that budget.
+ */
+@Service
+public class ImageDecodeService {
+
+    @Value("${images.decode.max-pixels:40000000}")
+    private long maxDecodedPixels;
+
+    @Value("${images.decode.max-source-pixels:400000000}")
+    private long maxSourcePixels;
+
+    /**
+     * A decoded image together with what the header said about the source.
+     */
+    public static final class Decoded {
+        public final BufferedImage image;
+        public final String format;
+        public final int sourceWidth;
+        public final int sourceHeight;
+        public final int subsampling;
+
+        Decoded(BufferedImage image, String format, int sourceWidth, int sourceHeight, int subsampling) {
+            this.image = image;
+            this.format = format;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.subsampling = subsampling;
+        }
+    }
+
+    /**
+     * Decode at full resolution, within the pixel budget.
+     *
+     * @return null if the stream is not a readable image
+     * @throws ImageTooLargeException if the image does not fit the budget
+     */
+    public Decoded decode(InputStream input) throws IOException {
+        return decode(input, 0, 0, null);
+    }
+
+    /**
+     * Decode for a caller that will scale the result to about targetWidth x
+     * targetHeight (either may be 0 to follow the aspect ratio; both 0 means
+     * full resolution). The decoded image keeps at least 2x the target size so
+     * the scaling passes still have detail to filter. If region is set, only
+     * that part of the source is read and the target applies to it.
+     *
+     * @return null if the stream is not a readable image
+     * @throws ImageTooLargeException if the image does not fit the budget
+     */
+    public Decoded decode(InputStream input, int targetWidth, int targetHeight, Rectangle region)
+            throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(input)) {
+            if (iis == null)
+                return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext())
+                return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxSourcePixels) {
+                    throw new ImageTooLargeException("Image is too large (" + sourceWidth + "x" + sourceHeight + ")");
+                }
+
+                Rectangle area = new Rectangle(0, 0, sourceWidth, sourceHeight);
+                if (region != null) {
+                    area = area.intersection(region);
+                    if (area.isEmpty()) {
+                        throw new IllegalArgumentException("Region lies outside the image");
+                    }
+                }
+
+                int subsampling = subsampling(area.width, area.height, targetWidth, targetHeight);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (region != null) {
+                    param.setSourceRegion(area);
+                }
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                BufferedImage image = reader.read(0, param);
+                return new Decoded(image, reader.getFormatName().toLowerCase(), sourceWidth, sourceHeight,
+                        subsampling);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Largest number of pixels a request may hold as one decoded image.
+     */
+    public long getMaxPixels() {
+        return maxDecodedPixels;
+    }
+
+    private int subsampling(int width, int height, int targetWidth, int targetHeight) {
+        boolean fullResolution = targetWidth <= 0 && targetHeight <= 0;
+        int subsampling = 1;
+        if (!fullResolution) {
+            int[] target = ImageResizeService.targetSize(width, height, targetWidth, targetHeight);
+            subsampling = Math.max(1, Math.min(width / (target[0] * 2), height / (target[1] * 2)));
+        }
+
+        while (decodedPixels(width, subsampling) * decodedPixels(height, subsampling) > maxDecodedPixels) {
+            if (fullResolution) {
+                throw new ImageTooLargeException("Image is too large to process at full resolution ("
+                        + width + "x" + height + ")");
+            }
+            subsampling++;
+        }
+        return subsampling;
+    }
+
+    private static long decodedPixels(int size, int subsampling) {
+        return (size + subsampling - 1) / subsampling;
+    }
+}
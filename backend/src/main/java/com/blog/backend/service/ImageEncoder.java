@@ -0,0 +1,47 @@
+package com.blog.backend.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Encodes images to bytes, optionally at an explicit compression quality.
+ */
+final class ImageEncoder {
+
+    private ImageEncoder() {
+    }
+
+    /**
+     * Encode image in format ("jpeg", "png", ...). For JPEG quality is the
+     * usual 0-1 quality; for PNG it picks the deflate level, 0 being the
+     * strongest. A null quality leaves the writer's default.
+     *
+     * @return null if there is no writer for format
+     */
+    static byte[] encode(BufferedImage image, String format, Float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext())
+            return null;
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (quality != null && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
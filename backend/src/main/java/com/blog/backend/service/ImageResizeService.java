@@ -0,0 +1,178 @@
+package com.blog.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * High-quality image downscaling without Image.getScaledInstance.
+ *
+ * Large reductions are done in steps: ImageDecodeService first subsamples
+ * the source (skipping rows and columns it would throw away anyway), then the
+ * image is halved with bilinear filtering until it is within 2x of the
+ * target, and a final bicubic pass lands on the exact size. Halving keeps
+ * every step's filter footprint small, which is what makes the result as
+ * smooth as SCALE_SMOOTH at a fraction of the cost. Alpha is preserved.
+ *
+ * Large final passes are split into horizontal bands drawn in parallel on a
+ * shared ForkJoin pool.
+ */
+@Service
+public class ImageResizeService {
+
+    // Destination images above this many pixels are drawn band by band in parallel
+    private static final long PARALLEL_THRESHOLD_PIXELS = 1_000_000;
+    private static final int MIN_BAND_HEIGHT = 64;
+
+    @Value("${images.resize.threads:0}")
+    private int threads;
+
+    @Autowired
+    private ImageDecodeService imageDecodeService;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Result of a resize, with the source format so callers can keep PNG as
+     * PNG and JPEG as JPEG.
+     */
+    public static final class Resized {
+        public final BufferedImage image;
+        public final String sourceFormat;
+
+        Resized(BufferedImage image, String sourceFormat) {
+            this.image = image;
+            this.sourceFormat = sourceFormat;
+        }
+    }
+
+    /**
+     * Decode an image stream and resize it to targetWidth x targetHeight.
+     * Either dimension may be 0 to derive it from the other and the source
+     * aspect ratio. With maintainAspectRatio, two given dimensions are a box
+     * the image is fitted into instead of an exact size.
+     *
+     * @return null if the stream is not a readable image
+     * @throws ImageTooLargeException if the image does not fit the decode budget
+     */
+    public Resized resize(InputStream input, int targetWidth, int targetHeight, boolean maintainAspectRatio)
+            throws IOException {
+        // The box is never smaller than the fitted size, so subsampling to it keeps the headroom
+        ImageDecodeService.Decoded decoded = imageDecodeService.decode(input, targetWidth, targetHeight, null);
+        if (decoded == null)
+            return null;
+        int[] target = maintainAspectRatio
+                ? fitSize(decoded.sourceWidth, decoded.sourceHeight, targetWidth, targetHeight)
+                : targetSize(decoded.sourceWidth, decoded.sourceHeight, targetWidth, targetHeight);
+        if ((long) target[0] * target[1] > imageDecodeService.getMaxPixels()) {
+            throw new ImageTooLargeException("Requested size is too large (" + target[0] + "x" + target[1] + ")");
+        }
+        return new Resized(resize(decoded.image, target[0], target[1]), decoded.format);
+    }
+
+    /**
+     * Resize an already decoded image to exactly targetWidth x targetHeight.
+     */
+    public BufferedImage resize(BufferedImage source, int targetWidth, int targetHeight) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+
+        // Progressive halving while we are more than 2x above the target
+        int width = source.getWidth();
+        int height = source.getHeight();
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height, type, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+
+        if (current.getWidth() == targetWidth && current.getHeight() == targetHeight && current.getType() == type)
+            return current;
+        return draw(current, targetWidth, targetHeight, type, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    /**
+     * Work out the output size, filling in a 0 dimension from the aspect ratio.
+     */
+    public static int[] targetSize(int sourceWidth, int sourceHeight, int width, int height) {
+        double aspectRatio = (double) sourceWidth / sourceHeight;
+        if (width <= 0 && height <= 0) {
+            return new int[] { sourceWidth, sourceHeight };
+        }
+        if (height <= 0) {
+            return new int[] { width, Math.max(1, (int) Math.round(width / aspectRatio)) };
+        }
+        if (width <= 0) {
+            return new int[] { Math.max(1, (int) Math.round(height * aspectRatio)), height };
+        }
+        return new int[] { width, height };
+    }
+
+    /**
+     * Largest size with the source aspect ratio that fits in width x height.
+     * A 0 dimension leaves that side free, as in targetSize.
+     */
+    public static int[] fitSize(int sourceWidth, int sourceHeight, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return targetSize(sourceWidth, sourceHeight, width, height);
+        }
+        double scale = Math.min((double) width / sourceWidth, (double) height / sourceHeight);
+        return new int[] { Math.max(1, (int) Math.round(sourceWidth * scale)),
+                Math.max(1, (int) Math.round(sourceHeight * scale)) };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, int type, Object interpolation) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        if ((long) width * height < PARALLEL_THRESHOLD_PIXELS) {
+            drawBand(source, target, 0, height, interpolation);
+            return target;
+        }
+
+        // Each band renders the whole scaled image clipped to its rows, so edges sample exactly as a single pass would
+        int bands = Math.max(1, Math.min(pool.getParallelism() * 2, height / MIN_BAND_HEIGHT));
+        int bandHeight = (height + bands - 1) / bands;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(bands);
+        for (int y = 0; y < height; y += bandHeight) {
+            int top = y;
+            int bottom = Math.min(height, y + bandHeight);
+            tasks.add(pool.submit(() -> drawBand(source, target, top, bottom, interpolation)));
+        }
+        tasks.forEach(ForkJoinTask::join);
+        return target;
+    }
+
+    private static void drawBand(BufferedImage source, BufferedImage target, int top, int bottom, Object interpolation) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+            g.setClip(0, top, target.getWidth(), bottom - top);
+            g.drawImage(source, 0, 0, target.getWidth(), target.getHeight(), null);
+        } finally {
+            g.dispose();
+        }
+    }
+}
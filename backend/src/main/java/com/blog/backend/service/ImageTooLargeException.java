@@ -0,0 +1,12 @@
+package com.blog.backend.service;
+
+/**
+ * Thrown when an image would need more pixels in memory than the decode
+ * budget allows.
+ */
+public class ImageTooLargeException extends RuntimeException {
+
+    public ImageTooLargeException(String message) {
+        super(message);
+    }
+}
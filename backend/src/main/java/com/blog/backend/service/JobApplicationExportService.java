@@ -0,0 +1,130 @@
+package com.blog.backend.service;
+
+import com.blog.backend.dto.JobApplicationResponse;
+import com.blog.backend.repository.JobApplicationRepository;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Streams a job's applications to an output stream as CSV or XLSX.
+ *
+ * Rows come from a fetch-size-limited JPA stream of DTO projections (nothing
+ * enters the persistence context) and are written as they arrive, so memory
+ * use does not grow with the number of applicants.
+ */
+@Service
+public class JobApplicationExportService {
+
+    // Rows SXSSF keeps in memory before flushing to its temp file
+    private static final int XLSX_ROW_WINDOW = 100;
+
+    private static final String[] HEADERS = {
+            "Application ID", "Applicant", "Account Email", "Contact Email", "Phone", "Resume URL", "Status",
+            "Applied At", "Cover Letter" };
+
+    @Autowired
+    private JobApplicationRepository jobApplicationRepository;
+
+    @Transactional(readOnly = true)
+    public void writeCsv(Long jobId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write('\uFEFF'); // BOM so Excel detects UTF-8
+        writeCsvRow(writer, HEADERS);
+
+        try (Stream<JobApplicationResponse> rows = jobApplicationRepository.streamByJobId(jobId)) {
+            rows.forEach(row -> {
+                try {
+                    writeCsvRow(writer, columns(row));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void writeXlsx(Long jobId, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<JobApplicationResponse> rows = jobApplicationRepository.streamByJobId(jobId)) {
+            SXSSFSheet sheet = workbook.createSheet("Applications");
+            CellStyle headerStyle = workbook.createCellStyle();
+            org.apache.poi.ss.usermodel.Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.length; i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(HEADERS[i]);
+                cell.setCellStyle(headerStyle);
+            }
+
+            int[] rowIndex = { 1 };
+            rows.forEach(application -> {
+                Row row = sheet.createRow(rowIndex[0]++);
+                String[] values = columns(application);
+                for (int i = 0; i < values.length; i++) {
+                    row.createCell(i).setCellValue(values[i]);
+                }
+            });
+
+            workbook.write(out);
+        } finally {
+            workbook.dispose(); // delete the temp files backing flushed rows
+            workbook.close();
+        }
+    }
+
+    private static String[] columns(JobApplicationResponse application) {
+        return new String[] {
+                String.valueOf(application.getId()),
+                application.getApplicant().getDisplayName(),
+                application.getApplicant().getEmail(),
+                application.getEmail(),
+                application.getPhone(),
+                application.getResumeUrl(),
+                application.getStatus() != null ? application.getStatus().name() : null,
+                application.getAppliedAt() != null ? application.getAppliedAt().toString() : null,
+                application.getCoverLetter() };
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                writer.write(',');
+            writer.write(csvEscape(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null || value.isEmpty())
+            return "";
+        // Neutralize spreadsheet formulas in user-supplied text
+        if ("=+-@".indexOf(value.charAt(0)) >= 0)
+            value = "'" + value;
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0)
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        return value;
+    }
+}
@@ -0,0 +1,61 @@
+package com.blog.backend.service;
+
+import com.blog.backend.dto.ApplyJobRequest;
+import com.blog.backend.event.JobApplicationCreatedEvent;
+import com.blog.backend.model.Job;
+import com.blog.backend.model.JobApplication;
+import com.blog.backend.model.User;
+import com.blog.backend.repository.JobApplicationRepository;
+import com.blog.backend.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+public class JobApplicationService {
+
+    @Autowired
+    private JobApplicationRepository jobApplicationRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Look up the application an earlier request with the same idempotency key
+     * created, so a retried apply call can return it without touching the job.
+     */
+    public Optional<JobApplication> findByIdempotencyKey(User applicant, String idempotencyKey) {
+        if (idempotencyKey == null)
+            return Optional.empty();
+        return jobApplicationRepository.findByApplicantIdAndIdempotencyKey(applicant.getId(), idempotencyKey);
+    }
+
+    /**
+     * Insert the application and bump the job's applicant counter in one
+     * transaction. The (job, applicant) unique constraint rejects concurrent
+     * duplicates with a DataIntegrityViolationException, which rolls back the
+     * increment as well.
+     */
+    @Transactional
+    public JobApplication apply(Job job, User applicant, ApplyJobRequest request, String idempotencyKey) {
+        JobApplication application = new JobApplication();
+        application.setJob(job);
+        application.setApplicant(applicant);
+        application.setCoverLetter(request.getCoverLetter());
+        application.setResumeUrl(request.getResumeUrl());
+        application.setEmail(request.getEmail());
+        application.setPhone(request.getPhone());
+        application.setIdempotencyKey(idempotencyKey);
+
+        JobApplication savedApplication = jobApplicationRepository.saveAndFlush(application);
+        jobRepository.incrementApplicantsCount(job.getId());
+        eventPublisher.publishEvent(new JobApplicationCreatedEvent(applicant.getId(), job.getId()));
+        return savedApplication;
+    }
+}
@@ -0,0 +1,138 @@
+package com.blog.backend.service;
+
+import com.blog.backend.event.JobDeletedEvent;
+import com.blog.backend.event.JobSavedEvent;
+import com.blog.backend.event.JobsExpiredEvent;
+import com.blog.backend.model.Job;
+import com.blog.backend.model.JobStatus;
+import com.blog.backend.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Closes ACTIVE jobs once their deadline has passed.
+ *
+ * Upcoming deadlines are kept in memory as one bucket of job ids per day, so a
+ * tick only looks at the buckets that are already due instead of scanning the
+ * jobs table. The buckets are seeded at startup and kept current from job
+ * save/delete events.
+ */
+@Service
+public class JobExpiryService {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Deadline day -> ids of ACTIVE jobs with that deadline
+    private final TreeMap<LocalDate, Set<Long>> buckets = new TreeMap<>();
+
+    // Reverse index so a job can be moved or removed without scanning buckets
+    private final Map<Long, LocalDate> deadlines = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadlines() {
+        List<JobRepository.JobDeadline> rows = jobRepository.findByStatusAndDeadlineIsNotNull(JobStatus.ACTIVE);
+        for (JobRepository.JobDeadline row : rows) {
+            track(row.getId(), JobStatus.ACTIVE, row.getDeadline());
+        }
+        System.out.println("Job expiry: tracking " + rows.size() + " deadlines");
+        closeExpiredJobs();
+    }
+
+    @EventListener
+    public void onJobSaved(JobSavedEvent event) {
+        Job job = event.getJob();
+        track(job.getId(), job.getStatus(), job.getDeadline());
+    }
+
+    @EventListener
+    public void onJobDeleted(JobDeletedEvent event) {
+        untrack(event.getJobId());
+    }
+
+    /**
+     * A job stays open through its deadline day and is closed on the next tick
+     * after midnight.
+     */
+    @Scheduled(fixedDelayString = "${jobs.expiry.check-interval-ms:60000}")
+    public void closeExpiredJobs() {
+        Map<Long, LocalDate> polled = pollDue(LocalDate.now());
+        if (polled.isEmpty())
+            return;
+
+        List<Long> due = new ArrayList<>(polled.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        int closed = 0;
+        int committed = 0;
+        try {
+            for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+                int to = Math.min(from + BATCH_SIZE, due.size());
+                closed += jobRepository.closeActiveJobs(due.subList(from, to), now);
+                committed = to;
+            }
+        } catch (RuntimeException e) {
+            // The failed batch and the ones after it go back on the wheel for the next tick
+            requeue(due.subList(committed, due.size()), polled);
+            throw e;
+        } finally {
+            if (committed > 0) {
+                System.out.println("Job expiry: closed " + closed + " expired jobs");
+                eventPublisher.publishEvent(new JobsExpiredEvent(new ArrayList<>(due.subList(0, committed))));
+            }
+        }
+    }
+
+    public synchronized void track(Long jobId, JobStatus status, LocalDate deadline) {
+        untrack(jobId);
+        if (status != JobStatus.ACTIVE || deadline == null)
+            return;
+        buckets.computeIfAbsent(deadline, d -> new HashSet<>()).add(jobId);
+        deadlines.put(jobId, deadline);
+    }
+
+    public synchronized void untrack(Long jobId) {
+        LocalDate deadline = deadlines.remove(jobId);
+        if (deadline == null)
+            return;
+        Set<Long> bucket = buckets.get(deadline);
+        bucket.remove(jobId);
+        if (bucket.isEmpty())
+            buckets.remove(deadline);
+    }
+
+    // Remove and return every job whose deadline day is before today, with that deadline
+    private synchronized Map<Long, LocalDate> pollDue(LocalDate today) {
+        Map<Long, LocalDate> due = new LinkedHashMap<>();
+        while (!buckets.isEmpty() && buckets.firstKey().isBefore(today)) {
+            Map.Entry<LocalDate, Set<Long>> bucket = buckets.pollFirstEntry();
+            for (Long jobId : bucket.getValue()) {
+                deadlines.remove(jobId);
+                due.put(jobId, bucket.getKey());
+            }
+        }
+        return due;
+    }
+
+    // Track polled jobs again unless a save has tracked them since; a deleted job just matches no row
+    private synchronized void requeue(List<Long> jobIds, Map<Long, LocalDate> polled) {
+        for (Long jobId : jobIds) {
+            if (!deadlines.containsKey(jobId)) {
+                buckets.computeIfAbsent(polled.get(jobId), d -> new HashSet<>()).add(jobId);
+                deadlines.put(jobId, polled.get(jobId));
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.blog.backend.service;
+
+import com.blog.backend.event.JobApplicationCreatedEvent;
+import com.blog.backend.event.JobDeletedEvent;
+import com.blog.backend.event.JobSavedEvent;
+import com.blog.backend.event.JobsExpiredEvent;
+import com.blog.backend.model.Job;
+import com.blog.backend.model.JobCategory;
+import com.blog.backend.model.JobStatus;
+import com.blog.backend.model.JobType;
+import com.blog.backend.repository.JobApplicationRepository;
+import com.blog.backend.repository.JobRepository;
+import com.blog.backend.repository.JobRepository.JobFeatures;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recommends active jobs to job seekers.
+ *
+ * Every active job has a precomputed sparse feature vector (category, category
+ * group, job type, location). A seeker's profile is the normalized sum of the
+ * vectors of the jobs they applied to, and a job's score is the cosine between
+ * the two. An inverted index from feature to job ids means only jobs sharing a
+ * feature with the profile are scored.
+ *
+ * Each seeker's top-K list is cached. A new or edited job is offered to every
+ * cached list instead of rebuilding them. Lists that contain a job which was
+ * closed, deleted or edited, and lists of users who just applied somewhere,
+ * are dropped and rebuilt on the next request. Lists are built outside the
+ * cache lock, so a build that overlapped any of these changes is returned but
+ * not cached: it may have read the index or the seeker's applications from
+ * before the change.
+ */
+@Service
+public class JobRecommendationService {
+
+    public static final int TOP_K = 50;
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private static final double CATEGORY_WEIGHT = 1.0;
+    private static final double CATEGORY_GROUP_WEIGHT = 0.3;
+    private static final double JOB_TYPE_WEIGHT = 0.6;
+    private static final double LOCATION_WEIGHT = 0.6;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobApplicationRepository jobApplicationRepository;
+
+    // Feature name -> dense id, shared by job and profile vectors
+    private final Map<String, Integer> featureIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextFeatureId = new AtomicInteger();
+
+    // Active job id -> feature vector
+    private final Map<Long, SparseVector> jobVectors = new ConcurrentHashMap<>();
+
+    // Feature id -> ids of active jobs having that feature
+    private final Map<Integer, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    // Seeker id -> cached recommendations, least recently used evicted first
+    private final Map<Long, UserRecommendations> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserRecommendations> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
+
+    // Bumped under the cache lock by every change that drops or updates cached lists
+    private long cacheGeneration;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveJobs() {
+        List<JobFeatures> jobs = jobRepository.findFeaturesByStatus(JobStatus.ACTIVE);
+        for (JobFeatures job : jobs) {
+            indexJob(job.getId(), vectorize(job));
+        }
+        System.out.println("Job recommendations: indexed " + jobs.size() + " active jobs");
+    }
+
+    /**
+     * Ids of the best matching active jobs for a seeker, best first. Empty when
+     * the seeker has no application history to build a profile from.
+     */
+    public List<Long> recommend(Long userId, int limit) {
+        UserRecommendations entry;
+        long generation;
+        synchronized (cache) {
+            entry = cache.get(userId);
+            generation = cacheGeneration;
+        }
+        if (entry == null) {
+            entry = build(userId);
+            synchronized (cache) {
+                if (cacheGeneration == generation) {
+                    cache.put(userId, entry);
+                }
+            }
+        }
+        return entry.topJobIds(limit);
+    }
+
+    @EventListener
+    public void onJobSaved(JobSavedEvent event) {
+        Job job = event.getJob();
+        removeJob(job.getId());
+        if (job.getStatus() != JobStatus.ACTIVE)
+            return;
+
+        SparseVector vector = vectorize(job.getCategory(), job.getJobType(), job.getLocation());
+        indexJob(job.getId(), vector);
+
+        synchronized (cache) {
+            cacheGeneration++;
+            for (UserRecommendations entry : cache.values()) {
+                entry.offer(job.getId(), vector);
+            }
+        }
+    }
+
+    @EventListener
+    public void onJobDeleted(JobDeletedEvent event) {
+        removeJob(event.getJobId());
+    }
+
+    @EventListener
+    public void onJobsExpired(JobsExpiredEvent event) {
+        event.getJobIds().forEach(this::removeJob);
+    }
+
+    // After commit: a rebuild started any earlier could still read the old applications
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onApplicationCreated(JobApplicationCreatedEvent event) {
+        // The profile changed; rebuild on next request
+        synchronized (cache) {
+            cacheGeneration++;
+            cache.remove(event.getApplicantId());
+        }
+    }
+
+    private UserRecommendations build(Long userId) {
+        List<JobFeatures> applied = jobApplicationRepository.findAppliedJobFeatures(userId);
+
+        Map<Integer, Double> profile = new HashMap<>();
+        Set<Long> appliedIds = new HashSet<>();
+        for (JobFeatures job : applied) {
+            appliedIds.add(job.getId());
+            SparseVector vector = vectorize(job);
+            for (int i = 0; i < vector.ids.length; i++) {
+                profile.merge(vector.ids[i], vector.weights[i], Double::sum);
+            }
+        }
+        normalize(profile);
+
+        UserRecommendations entry = new UserRecommendations(profile, appliedIds);
+        Set<Long> candidates = new HashSet<>();
+        for (Integer featureId : profile.keySet()) {
+            candidates.addAll(postings.getOrDefault(featureId, Set.of()));
+        }
+        for (Long jobId : candidates) {
+            SparseVector vector = jobVectors.get(jobId);
+            if (vector != null) {
+                entry.offer(jobId, vector);
+            }
+        }
+        return entry;
+    }
+
+    private void indexJob(Long jobId, SparseVector vector) {
+        jobVectors.put(jobId, vector);
+        for (int featureId : vector.ids) {
+            postings.computeIfAbsent(featureId, f -> ConcurrentHashMap.newKeySet()).add(jobId);
+        }
+    }
+
+    private void removeJob(Long jobId) {
+        SparseVector vector = jobVectors.remove(jobId);
+        if (vector == null)
+            return;
+        for (int featureId : vector.ids) {
+            Set<Long> jobs = postings.get(featureId);
+            if (jobs != null) {
+                jobs.remove(jobId);
+            }
+        }
+        synchronized (cache) {
+            cacheGeneration++;
+            cache.values().removeIf(entry -> entry.contains(jobId));
+        }
+    }
+
+    private SparseVector vectorize(JobFeatures job) {
+        return vectorize(job.getCategory(), job.getJobType(), job.getLocation());
+    }
+
+    private SparseVector vectorize(JobCategory category, JobType jobType, String location) {
+        Map<Integer, Double> features = new HashMap<>();
+        if (category != null) {
+            features.put(featureId("category:" + category.name()), CATEGORY_WEIGHT);
+            features.put(featureId("group:" + category.getType()), CATEGORY_GROUP_WEIGHT);
+        }
+        if (jobType != null)
+            features.put(featureId("type:" + jobType.name()), JOB_TYPE_WEIGHT);
+        if (location != null && !location.isBlank())
+            features.put(featureId("location:" + location.trim().toLowerCase()), LOCATION_WEIGHT);
+        normalize(features);
+        return SparseVector.of(features);
+    }
+
+    private int featureId(String feature) {
+        return featureIds.computeIfAbsent(feature, f -> nextFeatureId.getAndIncrement());
+    }
+
+    private static void normalize(Map<Integer, Double> vector) {
+        double norm = Math.sqrt(vector.values().stream().mapToDouble(w -> w * w).sum());
+        if (norm > 0) {
+            vector.replaceAll((id, w) -> w / norm);
+        }
+    }
+
+    /**
+     * Immutable sparse vector stored as parallel id/weight arrays.
+     */
+    static final class SparseVector {
+        final int[] ids;
+        final double[] weights;
+
+        private SparseVector(int[] ids, double[] weights) {
+            this.ids = ids;
+            this.weights = weights;
+        }
+
+        static SparseVector of(Map<Integer, Double> features) {
+            int[] ids = new int[features.size()];
+            double[] weights = new double[features.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Double> feature : features.entrySet()) {
+                ids[i] = feature.getKey();
+                weights[i] = feature.getValue();
+                i++;
+            }
+            return new SparseVector(ids, weights);
+        }
+
+        double dot(Map<Integer, Double> profile) {
+            double score = 0;
+            for (int i = 0; i < ids.length; i++) {
+                Double w = profile.get(ids[i]);
+                if (w != null)
+                    score += w * weights[i];
+            }
+            return score;
+        }
+    }
+
+    /**
+     * A seeker's profile vector and bounded top-K list of scored jobs.
+     */
+    private static final class UserRecommendations {
+        private final Map<Integer, Double> profile;
+        private final Set<Long> appliedJobIds;
+        // Ordered best first; ties go to the newer (higher id) job
+        private final TreeSet<ScoredJob> top = new TreeSet<>(
+                Comparator.comparingDouble(ScoredJob::score).reversed()
+                        .thenComparing(ScoredJob::jobId, Comparator.reverseOrder()));
+        private final Set<Long> topIds = new HashSet<>();
+
+        UserRecommendations(Map<Integer, Double> profile, Set<Long> appliedJobIds) {
+            this.profile = profile;
+            this.appliedJobIds = appliedJobIds;
+        }
+
+        synchronized void offer(Long jobId, SparseVector vector) {
+            if (appliedJobIds.contains(jobId) || topIds.contains(jobId))
+                return;
+            double score = vector.dot(profile);
+            if (score <= 0)
+                return;
+            if (top.size() >= TOP_K) {
+                if (score <= top.last().score())
+                    return;
+                topIds.remove(top.pollLast().jobId());
+            }
+            top.add(new ScoredJob(jobId, score));
+            topIds.add(jobId);
+        }
+
+        synchronized boolean contains(Long jobId) {
+            return topIds.contains(jobId);
+        }
+
+        synchronized List<Long> topJobIds(int limit) {
+            List<Long> ids = new ArrayList<>(Math.min(limit, top.size()));
+            for (ScoredJob job : top) {
+                if (ids.size() >= limit)
+                    break;
+                ids.add(job.jobId());
+            }
+            return ids;
+        }
+    }
+
+    private record ScoredJob(Long jobId, double score) {
+    }
+}
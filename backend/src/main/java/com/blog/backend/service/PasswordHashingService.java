@@ -0,0 +1,78 @@
+package com.blog.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing off the Tomcat request threads.
+ *
+ * Hashing is CPU-bound, so the pool has one thread per core and a small
+ * bounded queue. When the queue is full, new work is rejected immediately
+ * with a RejectedExecutionException instead of piling up. A login burst then
+ * degrades into fast 503s rather than stalling every other endpoint.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = WorkerPools.fixed("password-hashing", threads, new ArrayBlockingQueue<>(queueCapacity));
+        meterRegistry.gauge("auth.password.queue.size", executor, e -> e.getQueue().size());
+    }
+
+    /**
+     * Hash a raw password on the hashing pool.
+     *
+     * @throws RejectedExecutionException if the pool's queue is full
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a raw password against a stored hash on the hashing pool.
+     *
+     * @throws RejectedExecutionException if the pool's queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = meterRegistry.timer("auth.password.hash", "operation", operation);
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.login.rejected", "reason", "queue_full").increment();
+            throw e;
+        }
+    }
+}
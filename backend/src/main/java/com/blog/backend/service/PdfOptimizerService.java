@@ -0,0 +1,299 @@
+package com.blog.backend.service;
+
+import org.apache.pdfbox.contentstream.PDFStreamEngine;
+import org.apache.pdfbox.contentstream.operator.DrawObject;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.contentstream.operator.state.Concatenate;
+import org.apache.pdfbox.contentstream.operator.state.Restore;
+import org.apache.pdfbox.contentstream.operator.state.Save;
+import org.apache.pdfbox.contentstream.operator.state.SetGraphicsStateParameters;
+import org.apache.pdfbox.contentstream.operator.state.SetMatrix;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.util.Matrix;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Shrinks PDFs with PDFBox.
+ *
+ * The document is opened with temp-file-only memory settings and processed
+ * page by page:
+ * <ul>
+ * <li>identical image and embedded font streams are collapsed into one
+ * shared object;</li>
+ * <li>each raster image is measured at its largest drawn size on any page
+ * and, if it carries more pixels than the target DPI needs, downscaled and
+ * re-encoded as JPEG. Images that are not oversized are re-encoded only if
+ * that makes them smaller;</li>
+ * <li>XMP metadata, thumbnails and application private data are dropped, and
+ * uncompressed content streams are Flate-compressed.</li>
+ * </ul>
+ * Objects no longer referenced are left out when the document is saved.
+ */
+@Service
+public class PdfOptimizerService {
+
+    private static final COSName PIECE_INFO = COSName.getPDFName("PieceInfo");
+    private static final COSName THUMB = COSName.getPDFName("Thumb");
+    private static final List<COSName> FONT_FILE_KEYS = List.of(COSName.FONT_FILE, COSName.FONT_FILE2,
+            COSName.FONT_FILE3);
+    private static final List<COSName> IMAGE_KEYS = List.of(COSName.FILTER, COSName.DECODE_PARMS, COSName.WIDTH,
+            COSName.HEIGHT, COSName.BITS_PER_COMPONENT, COSName.COLORSPACE, COSName.SMASK, COSName.DECODE,
+            COSName.MASK, COSName.METADATA);
+    // Images need to be this much larger than the DPI target before downscaling is worth it
+    private static final double DOWNSCALE_MARGIN = 1.2;
+
+    @Autowired
+    private ImageResizeService imageResizeService;
+
+    @Value("${tools.pdf.optimize.max-image-pixels:40000000}")
+    private long maxImagePixels;
+
+    /**
+     * Sizes and counts from one optimization run.
+     */
+    public static final class Report {
+        public long originalSize;
+        public long optimizedSize;
+        public int imagesRecompressed;
+        public int duplicateImages;
+        public int duplicateFonts;
+    }
+
+    /**
+     * Optimize the PDF in source and write the result to target.
+     */
+    public Report optimize(File source, File target, int dpi, float quality) throws IOException {
+        Report report = new Report();
+        report.originalSize = source.length();
+
+        try (PDDocument document = PDDocument.load(source, MemoryUsageSetting.setupTempFileOnly())) {
+            Map<String, COSStream> imagesByHash = new HashMap<>();
+            Map<String, COSStream> fontsByHash = new HashMap<>();
+            Map<COSStream, double[]> drawnSizes = new IdentityHashMap<>();
+            ImageUsageCollector collector = new ImageUsageCollector(drawnSizes);
+
+            for (PDPage page : document.getPages()) {
+                page.getCOSObject().removeItem(THUMB);
+                page.getCOSObject().removeItem(PIECE_INFO);
+                page.getCOSObject().removeItem(COSName.METADATA);
+                if (page.getResources() != null) {
+                    dedupeResources(page.getResources(), imagesByHash, fontsByHash, report, new HashSet<>());
+                }
+                collector.processPage(page);
+                compressContentStreams(page);
+            }
+
+            for (Map.Entry<COSStream, double[]> entry : drawnSizes.entrySet()) {
+                if (recompress(document, entry.getKey(), entry.getValue(), dpi, quality)) {
+                    report.imagesRecompressed++;
+                }
+            }
+
+            document.getDocumentCatalog().setMetadata(null);
+            document.getDocumentCatalog().getCOSObject().removeItem(PIECE_INFO);
+            document.getDocumentInformation().getCOSObject().removeItem(COSName.getPDFName("Producer"));
+            document.save(target);
+        }
+        report.optimizedSize = target.length();
+        return report;
+    }
+
+    /**
+     * Point every image and font file that duplicates one seen earlier at the
+     * first copy, recursing into form XObjects.
+     */
+    private void dedupeResources(PDResources resources, Map<String, COSStream> imagesByHash,
+            Map<String, COSStream> fontsByHash, Report report, Set<COSBase> visited) throws IOException {
+        if (!visited.add(resources.getCOSObject()))
+            return;
+
+        for (COSName name : resources.getXObjectNames()) {
+            PDXObject xobject = resources.getXObject(name);
+            if (xobject instanceof PDImageXObject image) {
+                COSStream stream = image.getCOSObject();
+                COSStream canonical = imagesByHash.putIfAbsent(hash(stream), stream);
+                if (canonical != null && canonical != stream) {
+                    resources.getCOSObject().getCOSDictionary(COSName.XOBJECT).setItem(name, canonical);
+                    report.duplicateImages++;
+                }
+            } else if (xobject instanceof PDFormXObject form && form.getResources() != null) {
+                dedupeResources(form.getResources(), imagesByHash, fontsByHash, report, visited);
+            }
+        }
+
+        for (COSName name : resources.getFontNames()) {
+            PDFont font = resources.getFont(name);
+            if (font == null)
+                continue;
+            PDFontDescriptor descriptor = font instanceof PDType0Font type0
+                    ? type0.getDescendantFont().getFontDescriptor()
+                    : font.getFontDescriptor();
+            if (descriptor == null)
+                continue;
+            COSDictionary dict = descriptor.getCOSObject();
+            for (COSName key : FONT_FILE_KEYS) {
+                if (dict.getDictionaryObject(key) instanceof COSStream stream) {
+                    COSStream canonical = fontsByHash.putIfAbsent(hash(stream), stream);
+                    if (canonical != null && canonical != stream) {
+                        dict.setItem(key, canonical);
+                        report.duplicateFonts++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Downscale and/or re-encode one image stream in place, so every page
+     * that references it picks up the new data.
+     *
+     * @return true if the stream was replaced
+     */
+    private boolean recompress(PDDocument document, COSStream stream, double[] drawnSize, int dpi, float quality)
+            throws IOException {
+        PDImageXObject image = new PDImageXObject(new PDStream(stream), null);
+        if (image.isStencil() || image.getBitsPerComponent() == 1)
+            return false; // masks and bilevel scans are already compact
+        if ((long) image.getWidth() * image.getHeight() > maxImagePixels)
+            return false;
+
+        int targetWidth = image.getWidth();
+        int targetHeight = image.getHeight();
+        int neededWidth = (int) Math.ceil(drawnSize[0] / 72.0 * dpi);
+        int neededHeight = (int) Math.ceil(drawnSize[1] / 72.0 * dpi);
+        boolean oversized = neededWidth > 0 && neededHeight > 0
+                && image.getWidth() > neededWidth * DOWNSCALE_MARGIN
+                && image.getHeight() > neededHeight * DOWNSCALE_MARGIN;
+        if (oversized) {
+            double scale = Math.max((double) neededWidth / image.getWidth(), (double) neededHeight / image.getHeight());
+            targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        }
+
+        BufferedImage pixels;
+        try {
+            pixels = image.getImage();
+        } catch (IOException e) {
+            return false; // unsupported encoding (e.g. JBIG2 without a plugin): leave it alone
+        }
+        if (oversized) {
+            pixels = imageResizeService.resize(pixels, targetWidth, targetHeight);
+        }
+
+        PDImageXObject replacement = JPEGFactory.createFromImage(document, pixels, quality);
+        COSStream encoded = replacement.getCOSObject();
+        if (encoded.getLength() >= stream.getLength())
+            return false;
+
+        try (InputStream in = encoded.createRawInputStream(); OutputStream out = stream.createRawOutputStream()) {
+            in.transferTo(out);
+        }
+        for (COSName key : IMAGE_KEYS) {
+            stream.removeItem(key);
+        }
+        for (Map.Entry<COSName, COSBase> entry : encoded.entrySet()) {
+            if (!COSName.LENGTH.equals(entry.getKey())) {
+                stream.setItem(entry.getKey(), entry.getValue());
+            }
+        }
+        return true;
+    }
+
+    private static void compressContentStreams(PDPage page) throws IOException {
+        Iterator<PDStream> streams = page.getContentStreams();
+        while (streams.hasNext()) {
+            COSStream stream = streams.next().getCOSObject();
+            if (stream.getFilters() != null)
+                continue;
+            byte[] data;
+            try (InputStream in = stream.createInputStream()) {
+                data = in.readAllBytes();
+            }
+            try (OutputStream out = stream.createOutputStream(COSName.FLATE_DECODE)) {
+                out.write(data);
+            }
+        }
+    }
+
+    private static String hash(COSStream stream) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // The filter and size keys decide how the bytes are read, so they are part of the identity
+            for (COSName key : List.of(COSName.FILTER, COSName.DECODE_PARMS, COSName.WIDTH, COSName.HEIGHT,
+                    COSName.BITS_PER_COMPONENT, COSName.COLORSPACE, COSName.SMASK, COSName.SUBTYPE,
+                    COSName.LENGTH1, COSName.LENGTH2, COSName.getPDFName("Length3"))) {
+                digest.update(String.valueOf(stream.getDictionaryObject(key)).getBytes());
+            }
+            try (InputStream in = stream.createRawInputStream()) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Walks page content and records, for every image stream, the largest
+     * size (in points) it is drawn at.
+     */
+    private static final class ImageUsageCollector extends PDFStreamEngine {
+        private final Map<COSStream, double[]> drawnSizes;
+
+        ImageUsageCollector(Map<COSStream, double[]> drawnSizes) {
+            this.drawnSizes = drawnSizes;
+            addOperator(new Concatenate());
+            addOperator(new DrawObject());
+            addOperator(new SetGraphicsStateParameters());
+            addOperator(new Save());
+            addOperator(new Restore());
+            addOperator(new SetMatrix());
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            if ("Do".equals(operator.getName()) && !operands.isEmpty() && operands.get(0) instanceof COSName name
+                    && getResources() != null) {
+                PDXObject xobject = getResources().getXObject(name);
+                if (xobject instanceof PDImageXObject image) {
+                    Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
+                    double[] size = drawnSizes.computeIfAbsent(image.getCOSObject(), k -> new double[2]);
+                    size[0] = Math.max(size[0], Math.abs(ctm.getScalingFactorX()));
+                    size[1] = Math.max(size[1], Math.abs(ctm.getScalingFactorY()));
+                    return;
+                }
+            }
+            super.processOperator(operator, operands);
+        }
+    }
+}
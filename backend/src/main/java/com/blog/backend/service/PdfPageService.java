@@ -0,0 +1,283 @@
+package com.blog.backend.service;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Page-level PDF tools: merge, split and page extraction.
+ *
+ * Every document is opened from a file with
+ * MemoryUsageSetting.setupTempFileOnly(), so page content, images and fonts
+ * are read from the source file when they are written and new streams go to
+ * PDFBox scratch files; none of it is held in heap. What does live in heap is
+ * the parsed object graph (page dictionaries, resources, the xref table) plus
+ * an I/O buffer per open file. That grows with the number of pages and
+ * objects, not with the size of the file, and tools.pdf.pages.max-pages caps
+ * it. A split keeps only one part's page tree alive at a time.
+ *
+ * Output is written straight to the given stream; nothing is assembled in a
+ * byte array first.
+ */
+@Service
+public class PdfPageService {
+
+    private static final COSName POPUP = COSName.getPDFName("Popup");
+    private static final COSName IRT = COSName.getPDFName("IRT");
+    private static final COSName GOTO = COSName.getPDFName("GoTo");
+
+    @Value("${tools.pdf.pages.max-pages:2000}")
+    private int maxPages;
+
+    @Value("${tools.pdf.pages.max-files:20}")
+    private int maxFiles;
+
+    /**
+     * Page count of a PDF, failing if it is above tools.pdf.pages.max-pages.
+     *
+     * @throws IllegalArgumentException if the document has too many pages
+     */
+    public int pageCount(File source) throws IOException {
+        try (PDDocument document = PDDocument.load(source, MemoryUsageSetting.setupTempFileOnly())) {
+            int pages = document.getNumberOfPages();
+            if (pages > maxPages) {
+                throw new IllegalArgumentException("PDF has " + pages + " pages; the limit is " + maxPages);
+            }
+            return pages;
+        }
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    /**
+     * Merge the sources, in order, into one PDF written to out. Outlines,
+     * form fields and the structure tree are merged along with the pages.
+     */
+    public void merge(List<File> sources, OutputStream out) throws IOException {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        for (File source : sources) {
+            merger.addSource(source);
+        }
+        // PDFBox closes the destination when it is done saving
+        merger.setDestinationStream(StreamUtils.nonClosing(out));
+        merger.mergeDocuments(MemoryUsageSetting.setupTempFileOnly());
+    }
+
+    /**
+     * Write the pages in ranges, in the order given, as one PDF to out.
+     */
+    public void extract(File source, List<int[]> ranges, OutputStream out) throws IOException {
+        try (PDDocument document = PDDocument.load(source, MemoryUsageSetting.setupTempFileOnly())) {
+            writePages(document, ranges, out);
+        }
+    }
+
+    /**
+     * Write each range as its own PDF into a ZIP on out, named
+     * baseName-&lt;first&gt;-&lt;last&gt;.pdf.
+     */
+    public void split(File source, List<int[]> ranges, String baseName, OutputStream out) throws IOException {
+        try (PDDocument document = PDDocument.load(source, MemoryUsageSetting.setupTempFileOnly());
+                ZipOutputStream zip = new ZipOutputStream(StreamUtils.nonClosing(out))) {
+            // PDF streams are compressed already; don't spend CPU deflating them again
+            zip.setLevel(Deflater.BEST_SPEED);
+            for (int[] range : ranges) {
+                String name = range[0] == range[1]
+                        ? baseName + "-" + range[0] + ".pdf"
+                        : baseName + "-" + range[0] + "-" + range[1] + ".pdf";
+                zip.putNextEntry(new ZipEntry(name));
+                writePages(document, List.of(range), zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Parse a page selection such as "1-3,5,8-" against a document's page
+     * count. An open-ended range runs to the last page.
+     *
+     * @throws IllegalArgumentException if the selection is malformed or out of range
+     */
+    public static List<int[]> parseRanges(String spec, int pageCount) {
+        List<int[]> ranges = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String token = part.trim();
+            if (token.isEmpty())
+                continue;
+            int dash = token.indexOf('-');
+            int first;
+            int last;
+            try {
+                if (dash < 0) {
+                    first = last = Integer.parseInt(token);
+                } else {
+                    first = dash == 0 ? 1 : Integer.parseInt(token.substring(0, dash).trim());
+                    String end = token.substring(dash + 1).trim();
+                    last = end.isEmpty() ? pageCount : Integer.parseInt(end);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page range: " + token);
+            }
+            if (first < 1 || last > pageCount || first > last) {
+                throw new IllegalArgumentException(
+                        "Page range " + token + " is outside the document (1-" + pageCount + ")");
+            }
+            ranges.add(new int[] { first, last });
+        }
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("No pages selected");
+        }
+        return ranges;
+    }
+
+    /**
+     * Ranges of pagesPerPart pages covering the whole document.
+     */
+    public static List<int[]> everyPages(int pagesPerPart, int pageCount) {
+        if (pagesPerPart < 1) {
+            throw new IllegalArgumentException("Pages per part must be at least 1");
+        }
+        List<int[]> ranges = new ArrayList<>();
+        for (int first = 1; first <= pageCount; first += pagesPerPart) {
+            ranges.add(new int[] { first, Math.min(pageCount, first + pagesPerPart - 1) });
+        }
+        return ranges;
+    }
+
+    private static void writePages(PDDocument source, List<int[]> ranges, OutputStream out) throws IOException {
+        // Imported pages share their resources with the source, which stays open until the save is done
+        try (PDDocument target = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            target.getDocument().setVersion(source.getVersion());
+            Map<COSDictionary, PDPage> imported = new IdentityHashMap<>();
+            for (int[] range : ranges) {
+                for (int page = range[0]; page <= range[1]; page++) {
+                    PDPage original = source.getPage(page - 1);
+                    PDPage copy = target.importPage(original);
+                    // importPage leaves resources inherited from the page tree behind
+                    if (!original.getCOSObject().containsKey(COSName.RESOURCES) && original.getResources() != null)
+                        copy.setResources(original.getResources());
+                    // Article thread beads link to the source's other pages
+                    copy.getCOSObject().removeItem(COSName.B);
+                    imported.putIfAbsent(original.getCOSObject(), copy);
+                }
+            }
+            for (PDPage page : target.getPages()) {
+                copyAnnotations(page, imported);
+            }
+            target.save(StreamUtils.nonClosing(out));
+        }
+    }
+
+    /**
+     * Give an imported page its own copies of its annotations. importPage
+     * shares the source's /Annots, and their /P entries, link destinations
+     * and popup or form field parents point back into the source page tree;
+     * saved like that, every page of the source ends up in the output. The
+     * copies point at the imported page, links to a page that was imported
+     * go to its copy, and other references off the page are dropped.
+     */
+    private static void copyAnnotations(PDPage page, Map<COSDictionary, PDPage> imported) {
+        COSArray annots = page.getCOSObject().getCOSArray(COSName.ANNOTS);
+        if (annots == null)
+            return;
+
+        Map<COSDictionary, COSDictionary> copies = new IdentityHashMap<>();
+        List<COSDictionary> originals = new ArrayList<>();
+        for (COSBase item : annots) {
+            if (dereference(item) instanceof COSDictionary annotation && !copies.containsKey(annotation)) {
+                copies.put(annotation, new COSDictionary(annotation));
+                originals.add(annotation);
+            }
+        }
+
+        COSArray annotations = new COSArray();
+        for (COSDictionary original : originals) {
+            COSDictionary copy = copies.get(original);
+            if (copy.containsKey(COSName.P))
+                copy.setItem(COSName.P, page);
+            // Popups and replies on the same page follow their copies; field parents and the rest are dropped
+            for (COSName key : new COSName[] { POPUP, COSName.PARENT, IRT }) {
+                COSBase target = dereference(copy.getItem(key));
+                if (target == null)
+                    continue;
+                COSDictionary sibling = target instanceof COSDictionary dictionary ? copies.get(dictionary) : null;
+                if (sibling != null)
+                    copy.setItem(key, sibling);
+                else
+                    copy.removeItem(key);
+            }
+
+            COSBase dest = dereference(copy.getItem(COSName.DEST));
+            if (dest instanceof COSArray destination) {
+                COSArray remapped = remap(destination, imported);
+                if (remapped != null)
+                    copy.setItem(COSName.DEST, remapped);
+                else
+                    copy.removeItem(COSName.DEST);
+            }
+            if (dereference(copy.getItem(COSName.A)) instanceof COSDictionary action
+                    && GOTO.equals(action.getCOSName(COSName.S))
+                    && dereference(action.getItem(COSName.D)) instanceof COSArray destination) {
+                COSArray remapped = remap(destination, imported);
+                if (remapped != null) {
+                    COSDictionary goTo = new COSDictionary(action);
+                    goTo.setItem(COSName.D, remapped);
+                    copy.setItem(COSName.A, goTo);
+                } else {
+                    copy.removeItem(COSName.A);
+                }
+            }
+            annotations.add(copy);
+        }
+        page.getCOSObject().setItem(COSName.ANNOTS, annotations);
+    }
+
+    /**
+     * An explicit destination aimed at the imported copy of its page, the
+     * destination itself if it names no page of the source, or null if its
+     * page was not imported.
+     */
+    private static COSArray remap(COSArray destination, Map<COSDictionary, PDPage> imported) {
+        if (destination.size() == 0 || !(dereference(destination.get(0)) instanceof COSDictionary target))
+            return destination;
+        PDPage page = imported.get(target);
+        if (page == null)
+            return null;
+        COSArray remapped = new COSArray();
+        remapped.add(page);
+        for (int i = 1; i < destination.size(); i++) {
+            remapped.add(destination.get(i));
+        }
+        return remapped;
+    }
+
+    private static COSBase dereference(COSBase item) {
+        return item instanceof COSObject object ? object.getObject() : item;
+    }
+}
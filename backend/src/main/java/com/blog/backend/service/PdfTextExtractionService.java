@@ -0,0 +1,122 @@
+package com.blog.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.xwpf.usermodel.BreakType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Extracts the text of a PDF into a Word document, page ranges in parallel.
+ *
+ * The page count is read once, then the pages are cut into ranges of
+ * tools.pdf.extract.pages-per-task. Each range is extracted by a worker that
+ * opens its own temp-file-backed PDDocument (PDFBox documents are not thread
+ * safe). The merger appends ranges to the XWPFDocument strictly in page order
+ * as they complete, and only a few ranges run ahead of it, so extracted text
+ * does not pile up in memory for long documents.
+ */
+@Service
+public class PdfTextExtractionService {
+
+    @Value("${tools.pdf.extract.threads:0}")
+    private int threads;
+
+    @Value("${tools.pdf.extract.pages-per-task:16}")
+    private int pagesPerTask;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = WorkerPools.fixed("pdf-text", threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Write the text of the PDF in source to out as a .docx, one Word page
+     * per PDF page.
+     */
+    public void writeWord(File source, OutputStream out) throws IOException {
+        int pageCount;
+        try (PDDocument document = PDDocument.load(source, MemoryUsageSetting.setupTempFileOnly())) {
+            pageCount = document.getNumberOfPages();
+        }
+
+        // Ranges in flight at once; the merger waits on the oldest
+        int window = executor.getCorePoolSize() * 2;
+        Deque<Future<List<List<String>>>> pending = new ArrayDeque<>();
+        int nextPage = 1;
+
+        try (XWPFDocument word = new XWPFDocument()) {
+            boolean firstPage = true;
+            while (nextPage <= pageCount || !pending.isEmpty()) {
+                while (nextPage <= pageCount && pending.size() < window) {
+                    int start = nextPage;
+                    int end = Math.min(pageCount, start + pagesPerTask - 1);
+                    pending.add(executor.submit(() -> extractRange(source, start, end)));
+                    nextPage = end + 1;
+                }
+
+                for (List<String> page : WorkerPools.await(pending.poll(), pending, "Text extraction")) {
+                    if (!firstPage) {
+                        word.createParagraph().createRun().addBreak(BreakType.PAGE);
+                    }
+                    firstPage = false;
+                    for (String paragraph : page) {
+                        word.createParagraph().createRun().setText(paragraph);
+                    }
+                }
+            }
+            word.write(out);
+        }
+    }
+
+    /**
+     * Text of pages start..end (1-based, inclusive), as paragraphs per page.
+     */
+    private static List<List<String>> extractRange(File source, int start, int end) throws IOException {
+        List<List<String>> pages = new ArrayList<>(end - start + 1);
+        try (PDDocument document = PDDocument.load(source, MemoryUsageSetting.setupTempFileOnly())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            stripper.setParagraphEnd("\n\n");
+            for (int page = start; page <= end; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                pages.add(paragraphs(stripper.getText(document)));
+            }
+        }
+        return pages;
+    }
+
+    private static List<String> paragraphs(String text) {
+        List<String> paragraphs = new ArrayList<>();
+        for (String block : text.split("\\R\\s*\\R")) {
+            // Lines inside a paragraph are the PDF's hard wraps; join them back up
+            String paragraph = block.trim().replaceAll("\\s*\\R\\s*", " ")
+                    .replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F]", "");
+            if (!paragraph.isEmpty()) {
+                paragraphs.add(paragraph);
+            }
+        }
+        return paragraphs;
+    }
+}
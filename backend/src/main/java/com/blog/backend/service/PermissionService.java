@@ -1,14 +1,57 @@
 package com.blog.backend.service;
 
+import com.blog.backend.model.Capability;
 import com.blog.backend.model.Post;
 import com.blog.backend.model.PostStatus;
 import com.blog.backend.model.Role;
 import com.blog.backend.model.User;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.blog.backend.model.Capability.*;
+
 @Service
 public class PermissionService {
 
+    /**
+     * Role -> capability bit mask. Built once; every check is a single AND.
+     */
+    private static final Map<Role, Long> CAPABILITIES;
+
+    static {
+        Map<Role, Long> matrix = new EnumMap<>(Role.class);
+        matrix.put(Role.ADMIN, mask(CREATE_POST, EDIT_ANY_POST, DELETE_ANY_POST, PUBLISH_POST, REVIEW_POST,
+                VIEW_ANALYTICS, MANAGE_USERS, VIEW_USER_LIST, MANAGE_CATEGORIES, MANAGE_DELETION_REQUESTS,
+                DASHBOARD_ACCESS, MANAGE_ANY_JOB, REVOKE_ANY_TOKEN));
+        matrix.put(Role.EDITOR, mask(CREATE_POST, EDIT_ANY_POST, DELETE_ANY_POST, PUBLISH_POST, VIEW_USER_LIST,
+                MANAGE_CATEGORIES, MANAGE_DELETION_REQUESTS, DASHBOARD_ACCESS));
+        matrix.put(Role.REVIEWER, mask(EDIT_ANY_POST, DASHBOARD_ACCESS));
+        matrix.put(Role.WRITER, mask(CREATE_POST));
+        matrix.put(Role.USER, mask(CREATE_POST));
+        matrix.put(Role.VIEWER, mask(CREATE_POST)); // VIEWER = writer
+        CAPABILITIES = Collections.unmodifiableMap(matrix);
+    }
+
+    private static long mask(Capability... capabilities) {
+        long mask = 0;
+        for (Capability capability : capabilities) {
+            mask |= capability.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Check if the user's role grants a capability
+     */
+    public boolean has(User user, Capability capability) {
+        if (user == null || user.getRole() == null)
+            return false;
+        return (CAPABILITIES.get(user.getRole()) & capability.bit()) != 0;
+    }
+
     /**
      * Check if user can edit a post
      * ADMIN, EDITOR, REVIEWER: Can edit any post
@@ -19,9 +62,7 @@ public class PermissionService {
             return false;
 
         // ADMIN, EDITOR, REVIEWER can edit any post
-        if (user.getRole() == Role.ADMIN ||
-                user.getRole() == Role.EDITOR ||
-                user.getRole() == Role.REVIEWER) {
+        if (has(user, EDIT_ANY_POST)) {
             return true;
         }
 
@@ -34,14 +75,12 @@ public class PermissionService {
     }
 
     /**
-     * Check if user can delete a post
-     * ADMIN: Can delete any post
-     * Others: Cannot delete
+     * Check if user can delete any post directly
+     * ADMIN, EDITOR: Can delete any post
+     * Others: Only their own unpublished posts (checked by PostController)
      */
     public boolean canDeletePost(User user, Post post) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN;
+        return has(user, DELETE_ANY_POST);
     }
 
     /**
@@ -51,9 +90,7 @@ public class PermissionService {
      * Others: Cannot publish
      */
     public boolean canPublishPost(User user, Post post) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN || user.getRole() == Role.EDITOR;
+        return has(user, PUBLISH_POST);
     }
 
     /**
@@ -62,9 +99,7 @@ public class PermissionService {
      * Others: Cannot view analytics
      */
     public boolean canViewAnalytics(User user) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN;
+        return has(user, VIEW_ANALYTICS);
     }
 
     /**
@@ -73,9 +108,7 @@ public class PermissionService {
      * Others: Cannot manage users
      */
     public boolean canManageUsers(User user) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN;
+        return has(user, MANAGE_USERS);
     }
 
     /**
@@ -84,9 +117,7 @@ public class PermissionService {
      * (REVIEWER cannot approve/reject, only edit/submit)
      */
     public boolean canReviewPost(User user) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN;
+        return has(user, REVIEW_POST);
     }
 
     /**
@@ -98,14 +129,8 @@ public class PermissionService {
      * ADMIN: Can create and publish
      */
     public boolean canCreatePost(User user) {
-        if (user == null)
-            return false;
-        // Allow all authenticated users to create posts (VIEWER = writer)
-        return user.getRole() == Role.USER ||
-                user.getRole() == Role.VIEWER ||
-                user.getRole() == Role.WRITER ||
-                user.getRole() == Role.EDITOR ||
-                user.getRole() == Role.ADMIN;
+        // All authenticated roles but REVIEWER (VIEWER = writer)
+        return has(user, CREATE_POST);
     }
 
     /**
@@ -115,9 +140,7 @@ public class PermissionService {
      * Others: Cannot manage
      */
     public boolean canManageCategories(User user) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN || user.getRole() == Role.EDITOR;
+        return has(user, MANAGE_CATEGORIES);
     }
 
     /**
@@ -127,9 +150,7 @@ public class PermissionService {
      * Others: Cannot view
      */
     public boolean canViewUserList(User user) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN || user.getRole() == Role.EDITOR;
+        return has(user, VIEW_USER_LIST);
     }
 
     /**
@@ -138,10 +159,6 @@ public class PermissionService {
      * USER: No dashboard access
      */
     public boolean hasDashboardAccess(User user) {
-        if (user == null)
-            return false;
-        return user.getRole() == Role.ADMIN ||
-                user.getRole() == Role.EDITOR ||
-                user.getRole() == Role.REVIEWER;
+        return has(user, DASHBOARD_ACCESS);
     }
 }
@@ -0,0 +1,163 @@
+package com.blog.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Renders .pptx slides to images and assembles them into a PDF.
+ *
+ * Each slide is drawn with XSLFSlide.draw() at the requested DPI, so layout,
+ * shapes, pictures and fonts come out the way POI renders them rather than as
+ * extracted text. Slides are cut into ranges of
+ * tools.ppt.render.slides-per-task and rendered on a fixed pool; every task
+ * opens its own read-only XMLSlideShow, since slide shows are not thread
+ * safe. A rendered slide is held only as JPEG bytes, and only a few ranges
+ * run ahead of the merger, which adds them to the PDF strictly in slide order
+ * as they complete. Memory therefore depends on the pool size and DPI, not on
+ * the number of slides.
+ */
+@Service
+public class PptRenderService {
+
+    @Value("${tools.ppt.render.threads:0}")
+    private int threads;
+
+    @Value("${tools.ppt.render.slides-per-task:16}")
+    private int slidesPerTask;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = WorkerPools.fixed("ppt-render", threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Write the slides of the presentation in source to out as a PDF, one
+     * page per slide, each page the slide's size with the slide rendered at
+     * dpi and stored as JPEG at the given quality.
+     */
+    public void writePdf(File source, int dpi, float quality, OutputStream out) throws IOException {
+        int slideCount;
+        Dimension pageSize;
+        OPCPackage pkg = open(source);
+        try {
+            XMLSlideShow ppt = new XMLSlideShow(pkg);
+            slideCount = ppt.getSlides().size();
+            pageSize = ppt.getPageSize();
+        } finally {
+            pkg.revert();
+        }
+        PDRectangle mediaBox = new PDRectangle((float) pageSize.getWidth(), (float) pageSize.getHeight());
+
+        // Ranges in flight at once; the merger waits on the oldest
+        int window = executor.getCorePoolSize() * 2;
+        Deque<Future<List<byte[]>>> pending = new ArrayDeque<>();
+        int nextSlide = 0;
+
+        try (PDDocument pdf = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            while (nextSlide < slideCount || !pending.isEmpty()) {
+                while (nextSlide < slideCount && pending.size() < window) {
+                    int start = nextSlide;
+                    int end = Math.min(slideCount, start + slidesPerTask);
+                    pending.add(executor.submit(() -> renderRange(source, start, end, dpi, quality)));
+                    nextSlide = end;
+                }
+
+                for (byte[] jpeg : WorkerPools.await(pending.poll(), pending, "Slide rendering")) {
+                    PDPage page = new PDPage(mediaBox);
+                    pdf.addPage(page);
+                    PDImageXObject image = JPEGFactory.createFromByteArray(pdf, jpeg);
+                    try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                        content.drawImage(image, 0, 0, mediaBox.getWidth(), mediaBox.getHeight());
+                    }
+                }
+            }
+            pdf.save(out);
+        }
+    }
+
+    /**
+     * Slides start..end-1 (0-based) rendered as JPEG bytes.
+     */
+    private static List<byte[]> renderRange(File source, int start, int end, int dpi, float quality)
+            throws IOException {
+        List<byte[]> slides = new ArrayList<>(end - start);
+        OPCPackage pkg = open(source);
+        try {
+            XMLSlideShow ppt = new XMLSlideShow(pkg);
+            Dimension pageSize = ppt.getPageSize();
+            // Slide sizes are in points, 72 to the inch
+            double scale = dpi / 72.0;
+            int width = Math.max(1, (int) Math.round(pageSize.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(pageSize.getHeight() * scale));
+
+            List<XSLFSlide> all = ppt.getSlides();
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int i = start; i < end; i++) {
+                Graphics2D g = image.createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                    g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                    g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, width, height);
+                    g.scale(scale, scale);
+                    all.get(i).draw(g);
+                } finally {
+                    g.dispose();
+                }
+                slides.add(ImageEncoder.encode(image, "jpeg", quality));
+            }
+        } finally {
+            pkg.revert();
+        }
+        return slides;
+    }
+
+    /**
+     * Open read-only. Such packages are released with revert(); close() is
+     * for saving and only logs a warning here.
+     */
+    private static OPCPackage open(File source) throws IOException {
+        try {
+            return OPCPackage.open(source, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Not a readable presentation: " + e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,421 @@
+package com.blog.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.*;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Shrinks the pictures in .pptx files.
+ *
+ * The package is rewritten part by part rather than loaded into
+ * XMLSlideShow. Every PNG and JPEG under ppt/media is hashed first; pictures
+ * with identical bytes are processed once and all relationships are pointed
+ * at a single copy, so a logo repeated on every slide is stored once. Each
+ * distinct picture is then handled on a fixed-size pool:
+ * <ul>
+ * <li>pictures larger than tools.ppt.images.max-dimension are downscaled;</li>
+ * <li>pictures with transparent pixels stay PNG so the alpha survives;</li>
+ * <li>everything else is encoded as JPEG at the highest quality that fits the
+ * per-picture byte target, found by binary search.</li>
+ * </ul>
+ * A picture is only replaced when the new encoding is smaller. PNGs that
+ * become JPEGs are renamed, and the relationships and content types are
+ * updated to match.
+ */
+@Service
+public class PptxOptimizerService {
+
+    private static final String CONTENT_TYPES = "[Content_Types].xml";
+    private static final String MEDIA_DIR = "ppt/media/";
+    private static final float MIN_QUALITY = 0.4f;
+    private static final float MAX_QUALITY = 0.9f;
+    private static final int SEARCH_STEPS = 6;
+
+    @Autowired
+    private ImageDecodeService imageDecodeService;
+
+    @Autowired
+    private ImageResizeService imageResizeService;
+
+    @Value("${tools.ppt.images.threads:0}")
+    private int threads;
+
+    @Value("${tools.ppt.images.max-dimension:1920}")
+    private int maxDimension;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = WorkerPools.fixed("pptx-images", threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sizes and counts from one optimization run.
+     */
+    public static final class Report {
+        public long originalSize;
+        public long optimizedSize;
+        public int imagesRecompressed;
+        public int duplicateImages;
+    }
+
+    /**
+     * Optimize the presentation in source and write the result to target,
+     * aiming for at most targetBytes per JPEG picture.
+     */
+    public Report optimize(File source, File target, int targetBytes) throws IOException {
+        Report report = new Report();
+        report.originalSize = source.length();
+
+        try (ZipFile zip = new ZipFile(source)) {
+            if (zip.getEntry(CONTENT_TYPES) == null) {
+                throw new IOException("Not an Office Open XML package");
+            }
+            Set<String> names = new HashSet<>();
+            zip.stream().forEach(entry -> names.add(entry.getName()));
+
+            // Group identical pictures; the first of each group is the copy that is kept
+            Map<String, String> canonicalByHash = new HashMap<>();
+            Map<String, String> duplicates = new HashMap<>();
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                if (!isPicture(entry.getName()))
+                    continue;
+                String canonical = canonicalByHash.putIfAbsent(hash(zip, entry), entry.getName());
+                if (canonical != null) {
+                    duplicates.put(entry.getName(), canonical);
+                    report.duplicateImages++;
+                }
+            }
+
+            Map<String, Future<Recompressed>> work = new LinkedHashMap<>();
+            for (String name : canonicalByHash.values()) {
+                work.put(name, executor.submit(() -> recompress(zip, zip.getEntry(name), targetBytes)));
+            }
+            Map<String, Recompressed> results = new HashMap<>();
+            try {
+                for (Map.Entry<String, Future<Recompressed>> task : work.entrySet()) {
+                    Recompressed result = task.getValue().get();
+                    if (result != null) {
+                        results.put(task.getKey(), result);
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw new IOException("Picture recompression failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Picture recompression interrupted");
+            } finally {
+                work.values().forEach(f -> f.cancel(true));
+            }
+
+            // Old part name -> new part name, for pictures that are renamed or merged into another
+            Map<String, String> renames = new HashMap<>();
+            for (Map.Entry<String, Recompressed> result : results.entrySet()) {
+                String name = result.getKey();
+                // Only a PNG that became a JPEG needs a new name; .jpg and .jpeg stay as they are
+                if (!format(name).equals(result.getValue().extension)) {
+                    String renamed = uniqueName(name, result.getValue().extension, names);
+                    names.add(renamed);
+                    renames.put(name, renamed);
+                }
+            }
+            duplicates.forEach((name, canonical) -> renames.put(name, renames.getOrDefault(canonical, canonical)));
+            report.imagesRecompressed = results.size();
+
+            try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(target)))) {
+                out.setLevel(Deflater.BEST_COMPRESSION);
+                for (ZipEntry entry : Collections.list(zip.entries())) {
+                    String name = entry.getName();
+                    if (entry.isDirectory() || duplicates.containsKey(name))
+                        continue;
+
+                    out.putNextEntry(new ZipEntry(renames.getOrDefault(name, name)));
+                    if (results.containsKey(name)) {
+                        out.write(results.get(name).bytes);
+                    } else if (!renames.isEmpty() && name.equals(CONTENT_TYPES)) {
+                        writeDocument(updateContentTypes(zip, entry, renames, duplicates.keySet()), out);
+                    } else if (!renames.isEmpty() && name.endsWith(".rels")) {
+                        writeDocument(updateRelationships(zip, entry, renames), out);
+                    } else {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            StreamUtils.copy(in, out);
+                        }
+                    }
+                    out.closeEntry();
+                }
+            }
+        } catch (SAXException | ParserConfigurationException | TransformerException e) {
+            throw new IOException("Not a readable presentation: " + e.getMessage(), e);
+        }
+
+        report.optimizedSize = target.length();
+        return report;
+    }
+
+    /**
+     * New bytes for a picture, and the file extension they need.
+     */
+    private static final class Recompressed {
+        final byte[] bytes;
+        final String extension;
+
+        Recompressed(byte[] bytes, String extension) {
+            this.bytes = bytes;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Shrink one picture.
+     *
+     * @return null if the picture should be left as it is
+     */
+    private Recompressed recompress(ZipFile zip, ZipEntry entry, int targetBytes) throws IOException {
+        ImageDecodeService.Decoded decoded;
+        try (InputStream in = zip.getInputStream(entry)) {
+            decoded = imageDecodeService.decode(in, maxDimension, maxDimension, null);
+        } catch (ImageTooLargeException | IOException e) {
+            // Unreadable or oversized pictures (CMYK JPEGs, for one) are kept untouched
+            System.err.println("Skipping picture " + entry.getName() + ": " + e.getMessage());
+            return null;
+        }
+        if (decoded == null)
+            return null;
+
+        BufferedImage image = decoded.image;
+        long longEdge = Math.max(decoded.sourceWidth, decoded.sourceHeight);
+        if (longEdge > maxDimension) {
+            double scale = (double) maxDimension / longEdge;
+            image = imageResizeService.resize(image,
+                    Math.max(1, (int) Math.round(decoded.sourceWidth * scale)),
+                    Math.max(1, (int) Math.round(decoded.sourceHeight * scale)));
+        }
+
+        Recompressed result = hasTransparency(image)
+                ? new Recompressed(ImageEncoder.encode(image, "png", 0f), "png")
+                : new Recompressed(encodeJpeg(opaque(image), targetBytes), "jpeg");
+
+        return result.bytes != null && result.bytes.length < entry.getSize() ? result : null;
+    }
+
+    /**
+     * JPEG at the highest quality between MIN_QUALITY and MAX_QUALITY whose
+     * size is within targetBytes, or at MIN_QUALITY if none is.
+     */
+    private static byte[] encodeJpeg(BufferedImage image, int targetBytes) throws IOException {
+        byte[] best = ImageEncoder.encode(image, "jpeg", MAX_QUALITY);
+        if (best == null || best.length <= targetBytes)
+            return best;
+
+        float low = MIN_QUALITY;
+        float high = MAX_QUALITY;
+        best = null;
+        for (int step = 0; step < SEARCH_STEPS; step++) {
+            float quality = (low + high) / 2;
+            byte[] bytes = ImageEncoder.encode(image, "jpeg", quality);
+            if (bytes.length <= targetBytes) {
+                best = bytes;
+                low = quality;
+            } else {
+                high = quality;
+            }
+        }
+        return best != null ? best : ImageEncoder.encode(image, "jpeg", MIN_QUALITY);
+    }
+
+    /**
+     * Whether any pixel is not fully opaque. An alpha channel alone doesn't
+     * count: many PNGs carry one without using it.
+     */
+    private static boolean hasTransparency(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha())
+            return false;
+        WritableRaster alpha = image.getAlphaRaster();
+        if (alpha == null)
+            return true;
+        int max = (1 << alpha.getSampleModel().getSampleSize(0)) - 1;
+        int[] row = new int[alpha.getWidth()];
+        for (int y = 0; y < alpha.getHeight(); y++) {
+            alpha.getSamples(0, y, alpha.getWidth(), 1, 0, row);
+            for (int value : row) {
+                if (value < max)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static BufferedImage opaque(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha())
+            return image;
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    private static boolean isPicture(String name) {
+        if (!name.startsWith(MEDIA_DIR))
+            return false;
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg");
+    }
+
+    /**
+     * "png" or "jpeg" for a picture part, whichever spelling its extension uses.
+     */
+    private static String format(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".png") ? "png" : "jpeg";
+    }
+
+    private static String uniqueName(String name, String extension, Set<String> taken) {
+        String base = name.substring(0, name.lastIndexOf('.'));
+        String candidate = base + "." + extension;
+        for (int i = 1; taken.contains(candidate); i++) {
+            candidate = base + "-" + i + "." + extension;
+        }
+        return candidate;
+    }
+
+    private static String hash(ZipFile zip, ZipEntry entry) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Point relationship targets at renamed or merged pictures. Targets are
+     * resolved against the source part's folder, and only the file name is
+     * replaced, since every picture stays in ppt/media.
+     */
+    private static Document updateRelationships(ZipFile zip, ZipEntry entry, Map<String, String> renames)
+            throws IOException, SAXException, ParserConfigurationException {
+        Document document = parse(zip, entry);
+        // ppt/slides/_rels/slide1.xml.rels describes ppt/slides/slide1.xml
+        String name = entry.getName();
+        String folder = name.substring(0, Math.max(0, name.lastIndexOf("_rels/")));
+        URI base = URI.create("/" + folder.replace(" ", "%20"));
+
+        for (Element relationship : elements(document.getDocumentElement(), "Relationship")) {
+            String target = relationship.getAttribute("Target");
+            if ("External".equals(relationship.getAttribute("TargetMode")) || target.isEmpty())
+                continue;
+            String resolved;
+            try {
+                resolved = base.resolve(target.replace(" ", "%20")).getPath().substring(1);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            String renamed = renames.get(resolved);
+            if (renamed != null) {
+                relationship.setAttribute("Target",
+                        target.substring(0, target.lastIndexOf('/') + 1) + renamed.substring(MEDIA_DIR.length()));
+            }
+        }
+        return document;
+    }
+
+    private static Document updateContentTypes(ZipFile zip, ZipEntry entry, Map<String, String> renames,
+            Set<String> removed) throws IOException, SAXException, ParserConfigurationException {
+        Document document = parse(zip, entry);
+        Element root = document.getDocumentElement();
+
+        for (Element override : elements(root, "Override")) {
+            String part = override.getAttribute("PartName");
+            String name = part.startsWith("/") ? part.substring(1) : part;
+            if (removed.contains(name)) {
+                root.removeChild(override);
+            } else if (renames.containsKey(name)) {
+                override.setAttribute("PartName", "/" + renames.get(name));
+                override.setAttribute("ContentType", "image/jpeg");
+            }
+        }
+
+        boolean hasJpeg = elements(root, "Default").stream()
+                .anyMatch(d -> d.getAttribute("Extension").equalsIgnoreCase("jpeg"));
+        if (!hasJpeg && renames.values().stream().anyMatch(n -> n.endsWith(".jpeg"))) {
+            Element jpeg = document.createElementNS(root.getNamespaceURI(), "Default");
+            jpeg.setAttribute("Extension", "jpeg");
+            jpeg.setAttribute("ContentType", "image/jpeg");
+            root.insertBefore(jpeg, root.getFirstChild());
+        }
+        return document;
+    }
+
+    private static Document parse(ZipFile zip, ZipEntry entry)
+            throws IOException, SAXException, ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        try (InputStream in = zip.getInputStream(entry)) {
+            return factory.newDocumentBuilder().parse(in);
+        }
+    }
+
+    private static List<Element> elements(Element parent, String localName) {
+        List<Element> elements = new ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element element && localName.equals(element.getLocalName()))
+                elements.add(element);
+        }
+        return elements;
+    }
+
+    private static void writeDocument(Document document, OutputStream out) throws TransformerException {
+        document.setXmlStandalone(true);
+        var transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.transform(new DOMSource(document), new StreamResult(StreamUtils.nonClosing(out)));
+    }
+}
@@ -0,0 +1,289 @@
+package com.blog.backend.service;
+
+import com.blog.backend.event.JobDeletedEvent;
+import com.blog.backend.event.JobSavedEvent;
+import com.blog.backend.event.JobsExpiredEvent;
+import com.blog.backend.model.Job;
+import com.blog.backend.model.JobCategory;
+import com.blog.backend.model.JobStatus;
+import com.blog.backend.repository.JobRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Precomputed "similar jobs" neighbour table.
+ *
+ * Each active job gets a TF-IDF vector over its title (counted twice),
+ * description and requirements. Its top-K most cosine-similar active jobs in
+ * the same or an adjacent category are stored as a plain id list, so a lookup
+ * is a map get. All index maintenance runs on one background worker thread,
+ * triggered by job save/delete/expiry events; a nightly rebuild refreshes the
+ * IDF weights, which drift as jobs are added.
+ */
+@Service
+public class SimilarJobsService {
+
+    public static final int TOP_K = 10;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "our", "that", "the", "this", "to", "we", "will", "with", "you", "your");
+
+    private static final Map<JobCategory, Set<JobCategory>> ADJACENT = new EnumMap<>(JobCategory.class);
+
+    static {
+        for (JobCategory category : JobCategory.values()) {
+            ADJACENT.put(category, EnumSet.of(category));
+        }
+        adjacent(JobCategory.SOFTWARE_DEVELOPMENT, JobCategory.WEB_DEVELOPMENT, JobCategory.MOBILE_DEVELOPMENT,
+                JobCategory.DEVOPS, JobCategory.QA_TESTING, JobCategory.AI_ML, JobCategory.DATA_SCIENCE);
+        adjacent(JobCategory.WEB_DEVELOPMENT, JobCategory.MOBILE_DEVELOPMENT, JobCategory.UI_UX_DESIGN);
+        adjacent(JobCategory.MOBILE_DEVELOPMENT, JobCategory.UI_UX_DESIGN);
+        adjacent(JobCategory.DATA_SCIENCE, JobCategory.AI_ML);
+        adjacent(JobCategory.DEVOPS, JobCategory.CYBERSECURITY);
+        adjacent(JobCategory.UI_UX_DESIGN, JobCategory.PRODUCT_MANAGEMENT);
+        adjacent(JobCategory.PRODUCT_MANAGEMENT, JobCategory.BUSINESS_DEVELOPMENT);
+        adjacent(JobCategory.MARKETING, JobCategory.BUSINESS_DEVELOPMENT, JobCategory.CONTENT_WRITING);
+        adjacent(JobCategory.FINANCE, JobCategory.OPERATIONS, JobCategory.LEGAL);
+        adjacent(JobCategory.HR, JobCategory.ADMINISTRATION);
+        adjacent(JobCategory.OPERATIONS, JobCategory.ADMINISTRATION, JobCategory.CUSTOMER_SUPPORT);
+    }
+
+    private static void adjacent(JobCategory category, JobCategory... others) {
+        for (JobCategory other : others) {
+            ADJACENT.get(category).add(other);
+            ADJACENT.get(other).add(category);
+        }
+    }
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "similar-jobs-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Read by request threads; each value is an immutable id list
+    private final Map<Long, List<Long>> neighbours = new ConcurrentHashMap<>();
+
+    // Everything below is touched only from the worker thread
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<JobCategory, Set<Long>> jobsByCategory = new EnumMap<>(JobCategory.class);
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+
+    /**
+     * Ids of the most similar active jobs, best first.
+     */
+    public List<Long> similarTo(Long jobId, int limit) {
+        List<Long> ids = neighbours.getOrDefault(jobId, List.of());
+        return ids.size() <= limit ? ids : ids.subList(0, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${jobs.similar.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        worker.execute(() -> {
+            List<JobRepository.JobText> jobs = jobRepository.findTextByStatus(JobStatus.ACTIVE);
+            documents.clear();
+            jobsByCategory.clear();
+            documentFrequency.clear();
+
+            Map<Long, Map<String, Integer>> termCounts = new HashMap<>();
+            for (JobRepository.JobText job : jobs) {
+                Map<String, Integer> terms = termCounts(job.getTitle(), job.getDescription(), job.getRequirements());
+                termCounts.put(job.getId(), terms);
+                terms.keySet().forEach(term -> documentFrequency.merge(term, 1, Integer::sum));
+            }
+            for (JobRepository.JobText job : jobs) {
+                addDocument(job.getId(), job.getCategory(), termCounts.get(job.getId()), jobs.size());
+            }
+
+            Map<Long, List<Long>> rebuilt = new HashMap<>();
+            for (Long jobId : documents.keySet()) {
+                rebuilt.put(jobId, computeNeighbours(jobId));
+            }
+            neighbours.keySet().retainAll(rebuilt.keySet());
+            neighbours.putAll(rebuilt);
+            System.out.println("Similar jobs: indexed " + documents.size() + " active jobs");
+        });
+    }
+
+    @EventListener
+    public void onJobSaved(JobSavedEvent event) {
+        Job job = event.getJob();
+        Long jobId = job.getId();
+        if (job.getStatus() != JobStatus.ACTIVE) {
+            worker.execute(() -> removeDocument(jobId));
+            return;
+        }
+
+        // Copy what the worker needs; the entity must not cross threads
+        JobCategory category = job.getCategory();
+        String title = job.getTitle();
+        String description = job.getDescription();
+        String requirements = job.getRequirements();
+        worker.execute(() -> {
+            removeDocument(jobId);
+            Map<String, Integer> terms = termCounts(title, description, requirements);
+            terms.keySet().forEach(term -> documentFrequency.merge(term, 1, Integer::sum));
+            addDocument(jobId, category, terms, documents.size() + 1);
+
+            neighbours.put(jobId, computeNeighbours(jobId));
+            // Offer the new job to every neighbour list it could appear in
+            Document document = documents.get(jobId);
+            for (JobCategory candidate : ADJACENT.get(category)) {
+                for (Long otherId : jobsByCategory.getOrDefault(candidate, Set.of())) {
+                    if (!otherId.equals(jobId)) {
+                        offer(otherId, jobId, cosine(documents.get(otherId), document));
+                    }
+                }
+            }
+        });
+    }
+
+    @EventListener
+    public void onJobDeleted(JobDeletedEvent event) {
+        worker.execute(() -> removeDocument(event.getJobId()));
+    }
+
+    @EventListener
+    public void onJobsExpired(JobsExpiredEvent event) {
+        List<Long> jobIds = List.copyOf(event.getJobIds());
+        worker.execute(() -> jobIds.forEach(this::removeDocument));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void addDocument(Long jobId, JobCategory category, Map<String, Integer> terms, int corpusSize) {
+        Map<String, Double> weights = new HashMap<>();
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            double idf = Math.log((double) (corpusSize + 1) / (documentFrequency.getOrDefault(term.getKey(), 0) + 1))
+                    + 1;
+            weights.put(term.getKey(), (1 + Math.log(term.getValue())) * idf);
+        }
+        double norm = Math.sqrt(weights.values().stream().mapToDouble(w -> w * w).sum());
+        if (norm > 0) {
+            weights.replaceAll((term, w) -> w / norm);
+        }
+        documents.put(jobId, new Document(category, terms.keySet(), weights));
+        jobsByCategory.computeIfAbsent(category, c -> new HashSet<>()).add(jobId);
+    }
+
+    private void removeDocument(Long jobId) {
+        Document document = documents.remove(jobId);
+        neighbours.remove(jobId);
+        if (document == null)
+            return;
+        jobsByCategory.getOrDefault(document.category, new HashSet<>()).remove(jobId);
+        for (String term : document.terms) {
+            documentFrequency.computeIfPresent(term, (t, df) -> df > 1 ? df - 1 : null);
+        }
+        // Recompute only the lists that contained the removed job
+        for (Map.Entry<Long, List<Long>> entry : neighbours.entrySet()) {
+            if (entry.getValue().contains(jobId)) {
+                entry.setValue(computeNeighbours(entry.getKey()));
+            }
+        }
+    }
+
+    private List<Long> computeNeighbours(Long jobId) {
+        Document document = documents.get(jobId);
+        PriorityQueue<Scored> best = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        for (JobCategory candidate : ADJACENT.get(document.category)) {
+            for (Long otherId : jobsByCategory.getOrDefault(candidate, Set.of())) {
+                if (otherId.equals(jobId))
+                    continue;
+                double score = cosine(document, documents.get(otherId));
+                if (score <= 0)
+                    continue;
+                best.add(new Scored(otherId, score));
+                if (best.size() > TOP_K)
+                    best.poll();
+            }
+        }
+        List<Scored> sorted = new ArrayList<>(best);
+        sorted.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return sorted.stream().map(Scored::jobId).toList();
+    }
+
+    // Insert candidateId into jobId's list if it scores above the current tail
+    private void offer(Long jobId, Long candidateId, double score) {
+        if (score <= 0)
+            return;
+        List<Long> current = neighbours.getOrDefault(jobId, List.of());
+        Document document = documents.get(jobId);
+        List<Scored> scored = new ArrayList<>(current.size() + 1);
+        for (Long id : current) {
+            if (!id.equals(candidateId))
+                scored.add(new Scored(id, cosine(document, documents.get(id))));
+        }
+        if (scored.size() >= TOP_K && score <= scored.get(scored.size() - 1).score())
+            return;
+        scored.add(new Scored(candidateId, score));
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed());
+        neighbours.put(jobId, scored.stream().limit(TOP_K).map(Scored::jobId).toList());
+    }
+
+    private static double cosine(Document a, Document b) {
+        if (a == null || b == null)
+            return 0;
+        Map<String, Double> small = a.weights.size() <= b.weights.size() ? a.weights : b.weights;
+        Map<String, Double> large = small == a.weights ? b.weights : a.weights;
+        double dot = 0;
+        for (Map.Entry<String, Double> term : small.entrySet()) {
+            Double w = large.get(term.getKey());
+            if (w != null)
+                dot += term.getValue() * w;
+        }
+        return dot;
+    }
+
+    private static Map<String, Integer> termCounts(String title, String description, String requirements) {
+        Map<String, Integer> counts = new HashMap<>();
+        // Title terms count twice: titles are short and the most specific signal
+        addTerms(counts, title);
+        addTerms(counts, title);
+        addTerms(counts, description);
+        addTerms(counts, requirements);
+        return counts;
+    }
+
+    private static void addTerms(Map<String, Integer> counts, String text) {
+        if (text == null)
+            return;
+        for (String token : text.toLowerCase().split("[^a-z0-9+#]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                counts.merge(token, 1, Integer::sum);
+            }
+        }
+    }
+
+    private static final class Document {
+        final JobCategory category;
+        final Set<String> terms;
+        final Map<String, Double> weights;
+
+        Document(JobCategory category, Set<String> terms, Map<String, Double> weights) {
+            this.category = category;
+            this.terms = terms;
+            this.weights = weights;
+        }
+    }
+
+    private record Scored(Long jobId, double score) {
+    }
+}
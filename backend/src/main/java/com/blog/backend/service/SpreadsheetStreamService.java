@@ -0,0 +1,190 @@
+package com.blog.backend.service;
+
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads spreadsheets row by row without building a workbook in memory.
+ *
+ * .xlsx files are read with POI's event model: each sheet's XML is parsed
+ * with SAX and every row is handed to a RowHandler as soon as its end tag is
+ * seen, then dropped. The only workbook-wide state kept in heap is the shared
+ * strings table (the lookup for string cells) and the styles, which
+ * DataFormatter needs to render numbers and dates the way Excel shows them.
+ * Legacy .xls files have no streaming reader here; they are at most 65,536
+ * rows per sheet, so they are loaded with WorkbookFactory and fed through
+ * the same handler.
+ */
+@Service
+public class SpreadsheetStreamService {
+
+    /**
+     * Receives a spreadsheet one row at a time.
+     */
+    public interface RowHandler {
+        default void startSheet(String name) throws IOException {
+        }
+
+        /**
+         * A row that has at least one cell. cells is indexed by column, with
+         * "" for missing cells; it is reused, so copy it to keep it.
+         */
+        void row(int rowNum, List<String> cells) throws IOException;
+
+        default void endSheet() throws IOException {
+        }
+    }
+
+    /**
+     * Names of the sheets, in workbook order.
+     */
+    public List<String> sheetNames(File file) throws IOException {
+        List<String> names = new ArrayList<>();
+        if (FileMagic.valueOf(file) != FileMagic.OOXML) {
+            try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+                for (Sheet sheet : workbook) {
+                    names.add(sheet.getSheetName());
+                }
+            } catch (EncryptedDocumentException e) {
+                throw new IOException("Encrypted workbooks are not supported", e);
+            }
+            return names;
+        }
+
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                names.add(sheets.getSheetName());
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException("Not a readable spreadsheet: " + e.getMessage(), e);
+        }
+        return names;
+    }
+
+    /**
+     * Stream the rows of one sheet (by index), or of every sheet when
+     * sheetIndex is null, to handler.
+     */
+    public void read(File file, Integer sheetIndex, RowHandler handler) throws IOException {
+        if (FileMagic.valueOf(file) != FileMagic.OOXML) {
+            readLegacy(file, sheetIndex, handler);
+            return;
+        }
+
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+            DataFormatter formatter = new DataFormatter();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            for (int index = 0; sheets.hasNext(); index++) {
+                try (InputStream sheet = sheets.next()) {
+                    if (sheetIndex != null && sheetIndex != index)
+                        continue;
+                    handler.startSheet(sheets.getSheetName());
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings,
+                            new RowCollector(handler), formatter, false));
+                    parser.parse(new InputSource(sheet));
+                    handler.endSheet();
+                }
+                if (sheetIndex != null)
+                    break;
+            }
+        } catch (UncheckedIOException e) {
+            // Thrown by the handler from inside the SAX callbacks
+            throw e.getCause();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Not a readable spreadsheet: " + e.getMessage(), e);
+        }
+    }
+
+    private static void readLegacy(File file, Integer sheetIndex, RowHandler handler) throws IOException {
+        DataFormatter formatter = new DataFormatter();
+        List<String> cells = new ArrayList<>();
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+                if (sheetIndex != null && sheetIndex != i)
+                    continue;
+                Sheet sheet = workbook.getSheetAt(i);
+                handler.startSheet(sheet.getSheetName());
+                for (Row row : sheet) {
+                    cells.clear();
+                    for (Cell cell : row) {
+                        while (cells.size() < cell.getColumnIndex())
+                            cells.add("");
+                        cells.add(formatter.formatCellValue(cell));
+                    }
+                    if (!cells.isEmpty())
+                        handler.row(row.getRowNum(), cells);
+                }
+                handler.endSheet();
+            }
+        } catch (EncryptedDocumentException e) {
+            throw new IOException("Encrypted workbooks are not supported", e);
+        }
+    }
+
+    /**
+     * Gathers the cells of the current row and hands the row on at its end.
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.isEmpty())
+                return;
+            try {
+                handler.row(rowNum, cells);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Cells without a reference follow the previous one
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column)
+                cells.add("");
+            cells.add(formattedValue == null ? "" : formattedValue);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.blog.backend.service;
+
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A response body held in a temp file that belongs to the response. Spring
+ * streams it to the client from disk, and the file is deleted when that
+ * stream is closed, so a large result never has to fit in a byte array.
+ * ConversionJobService moves the file into its result directory instead of
+ * reading it.
+ */
+public class TempFileResource extends FileSystemResource {
+
+    public TempFileResource(File file) {
+        super(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FilterInputStream(super.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    delete();
+                }
+            }
+        };
+    }
+
+    /**
+     * Move the file to target, which from then on belongs to the caller.
+     */
+    public void moveTo(Path target) throws IOException {
+        Files.move(getFile().toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(getFile().toPath());
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + getPath() + ": " + e.getMessage());
+        }
+    }
+}
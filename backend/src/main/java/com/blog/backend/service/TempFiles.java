@@ -0,0 +1,34 @@
+package com.blog.backend.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Uploads copied to disk, so that PDFBox and POI can page through them
+ * instead of holding the whole document in heap.
+ */
+public final class TempFiles {
+
+    private TempFiles() {
+    }
+
+    /**
+     * Copy file to a new temp file, which belongs to the caller. Nothing is
+     * left behind if the copy fails.
+     */
+    public static File copyOf(MultipartFile file, String prefix, String suffix) throws IOException {
+        File target = File.createTempFile(prefix, suffix);
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            target.delete();
+            throw e;
+        }
+        return target;
+    }
+}
@@ -0,0 +1,79 @@
+package com.blog.backend.service;
+
+import com.blog.backend.model.RevokedToken;
+import com.blog.backend.repository.RevokedTokenRepository;
+import com.blog.backend.security.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Revoked JWTs, stored by revocation id (see JwtUtil.revocationId) in the
+ * revoked_tokens table and mirrored in an in-memory Bloom filter.
+ *
+ * Every authenticated request asks isRevoked. For the usual case, a token that
+ * was never revoked, the filter answers "no" without touching the database;
+ * only filter hits (real revocations and rare false positives) are confirmed
+ * with a query. The filter is rebuilt at startup and nightly, when rows for
+ * tokens past their expiry are purged.
+ */
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${auth.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    @PostConstruct
+    @Scheduled(cron = "${auth.revocation.purge-cron:0 15 4 * * *}")
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<String> jtis = revokedTokenRepository.findActiveJtis(now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, jtis.size() * 2L), falsePositiveRate);
+        jtis.forEach(rebuilt::put);
+        filter = rebuilt;
+        System.out.println("Token revocation: " + jtis.size() + " revoked tokens loaded, " + purged + " expired purged");
+    }
+
+    /**
+     * Revoke a verified token by its revocation id. Synchronized with rebuild
+     * so a revocation made while the filter is being rebuilt is not lost.
+     */
+    public synchronized void revoke(String revocationId, Claims claims) {
+        if (!revokedTokenRepository.existsByJti(revocationId)) {
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+            revokedTokenRepository.save(new RevokedToken(null, revocationId, expiresAt, null));
+        }
+        filter.put(revocationId);
+    }
+
+    public boolean isRevoked(String revocationId) {
+        if (!filter.mightContain(revocationId)) {
+            meterRegistry.counter("auth.revocation.checks", "result", "filter_negative").increment();
+            return false;
+        }
+        boolean revoked = revokedTokenRepository.existsByJti(revocationId);
+        meterRegistry.counter("auth.revocation.checks", "result", revoked ? "revoked" : "false_positive").increment();
+        return revoked;
+    }
+}
@@ -0,0 +1,61 @@
+package com.blog.backend.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The fixed pools of daemon threads the tool services run their work on,
+ * and waiting for that work in submission order.
+ */
+final class WorkerPools {
+
+    private WorkerPools() {
+    }
+
+    /**
+     * A pool of threads named name-1, name-2, ... with an unbounded queue.
+     * threads of 0 or less means one per CPU.
+     */
+    static ThreadPoolExecutor fixed(String name, int threads) {
+        return fixed(name, threads, new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * A pool like {@link #fixed(String, int)} that rejects work with
+     * RejectedExecutionException once queue is full.
+     */
+    static ThreadPoolExecutor fixed(String name, int threads, BlockingQueue<Runnable> queue) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue,
+                r -> {
+                    Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * The result of future, cancelling the others still pending if it
+     * failed or the wait was interrupted. task names the work in the error.
+     */
+    static <T> T await(Future<T> future, Collection<? extends Future<?>> others, String task) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            others.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io)
+                throw io;
+            throw new IOException(task + " failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            others.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(task + " interrupted");
+        }
+    }
+}
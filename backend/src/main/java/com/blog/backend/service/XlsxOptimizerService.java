@@ -0,0 +1,1034 @@
+package com.blog.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.*;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Shrinks .xlsx files by rewriting their package parts.
+ *
+ * <ul>
+ * <li>Worksheets are scanned once with StAX to find the styles and shared
+ * strings their cells use and the extent of their content. A cell or row
+ * counts as content if it has a value, or a format that looks different from
+ * the default one, and so do rows with a custom height or that are
+ * hidden.</li>
+ * <li>styles.xml is rebuilt: unused cell formats and named styles are
+ * dropped, identical fonts, fills, borders and cell formats are merged, and
+ * fonts, fills and borders no format refers to any more are removed.</li>
+ * <li>Shared strings no cell refers to are removed.</li>
+ * <li>Worksheets are streamed a second time and rewritten with the new style
+ * and string indexes, without the empty rows and cells past the last cell
+ * with content. Column definitions with a width, hidden flag or visible
+ * format are kept; the others are trimmed to match. Macro and dialog sheets
+ * get the new indexes too but are never trimmed.</li>
+ * <li>PNG and JPEG media are re-encoded and kept when that makes them
+ * smaller.</li>
+ * </ul>
+ * Everything is written to a new ZIP at maximum compression. Worksheets and
+ * shared strings never exist in memory as a whole; only styles.xml, which is
+ * small, is loaded as a DOM.
+ */
+@Service
+public class XlsxOptimizerService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CONTENT_TYPES = "[Content_Types].xml";
+    private static final String WORKSHEET_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml";
+    private static final String MACRO_SHEET_TYPE = "application/vnd.ms-excel.macrosheet+xml";
+    private static final String DIALOG_SHEET_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.dialogsheet+xml";
+    private static final String STYLES_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml";
+    private static final String SHARED_STRINGS_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml";
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Autowired
+    private ImageDecodeService imageDecodeService;
+
+    /**
+     * Sizes and counts from one optimization run.
+     */
+    public static final class Report {
+        public long originalSize;
+        public long optimizedSize;
+        public int stylesRemoved;
+        public int fontsRemoved;
+        public int sharedStringsRemoved;
+        public int rowsRemoved;
+        public int imagesRecompressed;
+    }
+
+    /**
+     * Optimize the workbook in source and write the result to target.
+     * JPEG media is re-encoded at quality.
+     */
+    public Report optimize(File source, File target, float quality) throws IOException {
+        Report report = new Report();
+        report.originalSize = source.length();
+
+        try (ZipFile zip = new ZipFile(source)) {
+            Parts parts = findParts(zip);
+
+            Document stylesDocument = parts.styles == null ? null : parseStyles(zip, parts.styles);
+            BitSet styledXfs = stylesDocument == null ? new BitSet() : styledFormats(stylesDocument);
+
+            // Pass 1: what the worksheets use
+            Usage usage = new Usage();
+            Map<String, Extent> extents = new HashMap<>();
+            for (String sheet : parts.worksheets) {
+                extents.put(sheet, scanWorksheet(zip, sheet, styledXfs, usage));
+            }
+            // Macro and dialog sheets use styles and shared strings as well, but are left their full size
+            for (String sheet : parts.otherSheets) {
+                scanWorksheet(zip, sheet, styledXfs, usage);
+                extents.put(sheet, Extent.unbounded());
+            }
+
+            StyleMap styles = stylesDocument == null ? null : rebuildStyles(stylesDocument, usage, report);
+            // Revision logs refer to shared strings too; leave the table alone if there are any
+            boolean renumberStrings = parts.sharedStrings != null
+                    && zip.stream().noneMatch(e -> e.getName().startsWith("xl/revisions/"));
+            int[] stringMap = renumberStrings ? stringMap(usage) : null;
+
+            try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(target)))) {
+                out.setLevel(Deflater.BEST_COMPRESSION);
+                for (ZipEntry entry : Collections.list(zip.entries())) {
+                    if (entry.isDirectory())
+                        continue;
+                    String name = entry.getName();
+                    out.putNextEntry(new ZipEntry(name));
+                    if (extents.containsKey(name)) {
+                        writeWorksheet(zip, entry, extents.get(name), styles, styledXfs, stringMap, out, report);
+                    } else if (styles != null && name.equals(parts.styles)) {
+                        writeDocument(styles.document, out);
+                    } else if (stringMap != null && name.equals(parts.sharedStrings)) {
+                        writeSharedStrings(zip, entry, stringMap, usage.stringReferences, out, report);
+                    } else if (!name.startsWith("xl/media/") || !writeRecompressedImage(zip, entry, quality, out, report)) {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            StreamUtils.copy(in, out);
+                        }
+                    }
+                    out.closeEntry();
+                }
+            }
+        } catch (XMLStreamException | SAXException | ParserConfigurationException | TransformerException e) {
+            throw new IOException("Not a readable workbook: " + e.getMessage(), e);
+        }
+
+        report.optimizedSize = target.length();
+        return report;
+    }
+
+    private static final class Parts {
+        final List<String> worksheets = new ArrayList<>();
+        final List<String> otherSheets = new ArrayList<>();
+        String styles;
+        String sharedStrings;
+    }
+
+    /**
+     * Find the sheet, styles and shared strings parts from the content type
+     * overrides rather than assuming the usual file names.
+     */
+    private static Parts findParts(ZipFile zip) throws IOException, XMLStreamException {
+        ZipEntry contentTypes = zip.getEntry(CONTENT_TYPES);
+        if (contentTypes == null) {
+            throw new IOException("Not an Office Open XML package");
+        }
+        Parts parts = new Parts();
+        try (InputStream in = zip.getInputStream(contentTypes)) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT || !reader.getLocalName().equals("Override"))
+                    continue;
+                String partName = reader.getAttributeValue(null, "PartName");
+                String type = reader.getAttributeValue(null, "ContentType");
+                if (partName == null || type == null)
+                    continue;
+                String name = partName.startsWith("/") ? partName.substring(1) : partName;
+                switch (type) {
+                    case WORKSHEET_TYPE -> parts.worksheets.add(name);
+                    case MACRO_SHEET_TYPE, DIALOG_SHEET_TYPE -> parts.otherSheets.add(name);
+                    case STYLES_TYPE -> parts.styles = name;
+                    case SHARED_STRINGS_TYPE -> parts.sharedStrings = name;
+                    default -> {
+                    }
+                }
+            }
+            reader.close();
+        }
+        parts.worksheets.removeIf(name -> zip.getEntry(name) == null);
+        parts.otherSheets.removeIf(name -> zip.getEntry(name) == null);
+        if (parts.styles != null && zip.getEntry(parts.styles) == null)
+            parts.styles = null;
+        if (parts.sharedStrings != null && zip.getEntry(parts.sharedStrings) == null)
+            parts.sharedStrings = null;
+        return parts;
+    }
+
+    /**
+     * Style and shared string indexes referenced anywhere in the workbook.
+     */
+    private static final class Usage {
+        final BitSet styles = new BitSet();
+        final BitSet strings = new BitSet();
+        long stringReferences;
+    }
+
+    /**
+     * Bounding box of a worksheet's content, 0-based. Cells outside it are
+     * empty and can go. Rows that count as content on their own extend only
+     * the rows, so lastColumn can still be -1 when the box is not empty.
+     */
+    private static final class Extent {
+        int firstRow = Integer.MAX_VALUE;
+        int firstColumn = Integer.MAX_VALUE;
+        int lastRow = -1;
+        int lastColumn = -1;
+        boolean bounded = true;
+
+        /**
+         * An extent that keeps everything and leaves the dimension alone.
+         */
+        static Extent unbounded() {
+            Extent extent = new Extent();
+            extent.firstRow = 0;
+            extent.firstColumn = 0;
+            extent.lastRow = Integer.MAX_VALUE;
+            extent.lastColumn = Integer.MAX_VALUE;
+            extent.bounded = false;
+            return extent;
+        }
+
+        void include(int row, int column) {
+            includeRow(row);
+            firstColumn = Math.min(firstColumn, column);
+            lastColumn = Math.max(lastColumn, column);
+        }
+
+        void includeRow(int row) {
+            firstRow = Math.min(firstRow, row);
+            lastRow = Math.max(lastRow, row);
+        }
+
+        boolean isEmpty() {
+            return lastRow < 0;
+        }
+
+        String reference() {
+            if (isEmpty())
+                return "A1";
+            return cellName(firstRow, lastColumn < 0 ? 0 : firstColumn) + ":" + cellName(lastRow, Math.max(lastColumn, 0));
+        }
+    }
+
+    private static Extent scanWorksheet(ZipFile zip, String name, BitSet styledXfs, Usage usage)
+            throws IOException, XMLStreamException {
+        Extent extent = new Extent();
+        try (InputStream in = zip.getInputStream(zip.getEntry(name))) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            int row = -1;
+            int column = -1;
+            boolean sharedString = false;
+            boolean hasContent = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "row" -> {
+                            String r = reader.getAttributeValue(null, "r");
+                            row = r == null ? row + 1 : Integer.parseInt(r) - 1;
+                            column = -1;
+                            String s = reader.getAttributeValue(null, "s");
+                            markStyle(usage, s);
+                            if (isStyled(styledXfs, s) || isTrue(reader.getAttributeValue(null, "customHeight"))
+                                    || isTrue(reader.getAttributeValue(null, "hidden")))
+                                extent.includeRow(row);
+                        }
+                        case "c" -> {
+                            String r = reader.getAttributeValue(null, "r");
+                            column = r == null ? column + 1 : cellColumn(r);
+                            sharedString = "s".equals(reader.getAttributeValue(null, "t"));
+                            String s = reader.getAttributeValue(null, "s");
+                            hasContent = isStyled(styledXfs, s);
+                            markStyle(usage, s);
+                        }
+                        case "v" -> {
+                            hasContent = true;
+                            if (sharedString) {
+                                String text = reader.getElementText().trim();
+                                if (!text.isEmpty()) {
+                                    usage.strings.set(Integer.parseInt(text));
+                                    usage.stringReferences++;
+                                }
+                            }
+                        }
+                        case "f", "is" -> hasContent = true;
+                        case "col" -> markStyle(usage, reader.getAttributeValue(null, "style"));
+                        case "mergeCell", "hyperlink" -> {
+                            // Merged ranges and links keep the cells they cover
+                            String ref = reader.getAttributeValue(null, "ref");
+                            if (ref != null) {
+                                for (String corner : ref.split(":")) {
+                                    extent.include(cellRow(corner), cellColumn(corner));
+                                }
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("c")) {
+                    if (hasContent)
+                        extent.include(row, column);
+                }
+            }
+            reader.close();
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed worksheet " + name, e);
+        }
+        return extent;
+    }
+
+    private static void markStyle(Usage usage, String index) {
+        if (index != null && !index.isEmpty())
+            usage.styles.set(Integer.parseInt(index));
+    }
+
+    /**
+     * Whether a style attribute refers to a cell format that looks different
+     * from the default one. Indexes past the end fall back to the default.
+     */
+    private static boolean isStyled(BitSet styledXfs, String index) {
+        return index != null && !index.isEmpty() && styledXfs.get(Integer.parseInt(index));
+    }
+
+    /**
+     * xsd:boolean allows both spellings, and POI writes "true".
+     */
+    private static boolean isTrue(String value) {
+        return "1".equals(value) || "true".equals(value);
+    }
+
+    /**
+     * Whether a column definition changes how the sheet looks, so that it
+     * has to stay even where no cell has content.
+     */
+    private static boolean isVisibleColumn(XMLStreamReader reader, BitSet styledXfs) {
+        return reader.getAttributeValue(null, "width") != null
+                || isTrue(reader.getAttributeValue(null, "customWidth"))
+                || isTrue(reader.getAttributeValue(null, "hidden"))
+                || isStyled(styledXfs, reader.getAttributeValue(null, "style"));
+    }
+
+    /**
+     * The rebuilt styles document and the old-to-new cell format index map.
+     */
+    private static final class StyleMap {
+        final Document document;
+        final int[] cellXfs;
+
+        StyleMap(Document document, int[] cellXfs) {
+            this.document = document;
+            this.cellXfs = cellXfs;
+        }
+
+        int map(int index) {
+            return index >= 0 && index < cellXfs.length ? cellXfs[index] : 0;
+        }
+    }
+
+    private static Document parseStyles(ZipFile zip, String name)
+            throws IOException, SAXException, ParserConfigurationException {
+        try (InputStream in = zip.getInputStream(zip.getEntry(name))) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            return factory.newDocumentBuilder().parse(in);
+        }
+    }
+
+    /**
+     * Cell formats that differ from format 0 once their font, fill and
+     * border are compared by content rather than by index. A blank cell with
+     * one of these still shows something (a fill, a border) and is content.
+     */
+    private static BitSet styledFormats(Document document) {
+        Element root = document.getDocumentElement();
+        List<Element> cellXfs = children(child(root, "cellXfs"), "xf");
+        List<Element> fonts = children(child(root, "fonts"), "font");
+        List<Element> fills = children(child(root, "fills"), "fill");
+        List<Element> borders = children(child(root, "borders"), "border");
+        BitSet styled = new BitSet();
+        if (cellXfs.isEmpty())
+            return styled;
+        String plain = resolved(cellXfs.get(0), fonts, fills, borders);
+        for (int i = 1; i < cellXfs.size(); i++) {
+            if (!resolved(cellXfs.get(i), fonts, fills, borders).equals(plain))
+                styled.set(i);
+        }
+        return styled;
+    }
+
+    /**
+     * Canonical form of a cell format with its font, fill and border inlined.
+     */
+    private static String resolved(Element xf, List<Element> fonts, List<Element> fills, List<Element> borders) {
+        Element copy = (Element) xf.cloneNode(true);
+        copy.removeAttribute("fontId");
+        copy.removeAttribute("fillId");
+        copy.removeAttribute("borderId");
+        return canonical(copy) + component(fonts, intAttribute(xf, "fontId"))
+                + component(fills, intAttribute(xf, "fillId")) + component(borders, intAttribute(xf, "borderId"));
+    }
+
+    private static String component(List<Element> items, int index) {
+        return index < items.size() ? canonical(items.get(index)) : "";
+    }
+
+    private static StyleMap rebuildStyles(Document document, Usage usage, Report report) {
+        Element root = document.getDocumentElement();
+        List<Element> cellXfs = children(child(root, "cellXfs"), "xf");
+        List<Element> cellStyleXfs = children(child(root, "cellStyleXfs"), "xf");
+
+        // Cell formats in use (format 0 is the workbook default and always stays)
+        BitSet usedXfs = new BitSet();
+        usedXfs.set(0);
+        for (int i = usage.styles.nextSetBit(0); i >= 0 && i < cellXfs.size(); i = usage.styles.nextSetBit(i + 1)) {
+            usedXfs.set(i);
+        }
+
+        // Named styles in use: the ones a used cell format is based on, plus Normal
+        BitSet usedStyleXfs = new BitSet();
+        usedStyleXfs.set(0);
+        for (int i = usedXfs.nextSetBit(0); i >= 0; i = usedXfs.nextSetBit(i + 1)) {
+            usedStyleXfs.set(intAttribute(cellXfs.get(i), "xfId"));
+        }
+
+        // Fonts, fills and borders referenced by what is left
+        BitSet usedFonts = new BitSet();
+        BitSet usedFills = new BitSet();
+        BitSet usedBorders = new BitSet();
+        usedFonts.set(0);
+        usedFills.set(0, 2); // Excel requires the "none" and "gray125" fills
+        usedBorders.set(0);
+        for (int i = usedXfs.nextSetBit(0); i >= 0; i = usedXfs.nextSetBit(i + 1)) {
+            markComponents(cellXfs.get(i), usedFonts, usedFills, usedBorders);
+        }
+        for (int i = usedStyleXfs.nextSetBit(0); i >= 0 && i < cellStyleXfs.size(); i = usedStyleXfs.nextSetBit(i + 1)) {
+            markComponents(cellStyleXfs.get(i), usedFonts, usedFills, usedBorders);
+        }
+
+        int fontsBefore = children(child(root, "fonts"), "font").size();
+        int[] fontMap = dedupe(child(root, "fonts"), usedFonts, 1);
+        int[] fillMap = dedupe(child(root, "fills"), usedFills, 2);
+        int[] borderMap = dedupe(child(root, "borders"), usedBorders, 1);
+        report.fontsRemoved = fontsBefore - children(child(root, "fonts"), "font").size();
+
+        // Named style formats are pruned but not merged, so each named style keeps its own
+        int[] styleXfMap = new int[cellStyleXfs.size()];
+        int next = 0;
+        for (int i = 0; i < cellStyleXfs.size(); i++) {
+            Element xf = cellStyleXfs.get(i);
+            if (usedStyleXfs.get(i)) {
+                remapComponents(xf, fontMap, fillMap, borderMap);
+                styleXfMap[i] = next++;
+            } else {
+                xf.getParentNode().removeChild(xf);
+            }
+        }
+        updateCount(child(root, "cellStyleXfs"), next);
+
+        Element cellStyles = child(root, "cellStyles");
+        if (cellStyles != null) {
+            for (Element style : children(cellStyles, "cellStyle")) {
+                int xfId = intAttribute(style, "xfId");
+                if (xfId < styleXfMap.length && usedStyleXfs.get(xfId)) {
+                    style.setAttribute("xfId", String.valueOf(styleXfMap[xfId]));
+                } else {
+                    cellStyles.removeChild(style);
+                }
+            }
+            updateCount(cellStyles, children(cellStyles, "cellStyle").size());
+        }
+
+        int[] xfMap = new int[cellXfs.size()];
+        Map<String, Integer> seen = new HashMap<>();
+        next = 0;
+        for (int i = 0; i < cellXfs.size(); i++) {
+            Element xf = cellXfs.get(i);
+            if (!usedXfs.get(i)) {
+                xf.getParentNode().removeChild(xf);
+                continue;
+            }
+            remapComponents(xf, fontMap, fillMap, borderMap);
+            int xfId = intAttribute(xf, "xfId");
+            if (xfId < styleXfMap.length && xf.hasAttribute("xfId"))
+                xf.setAttribute("xfId", String.valueOf(styleXfMap[xfId]));
+
+            Integer existing = seen.putIfAbsent(canonical(xf), next);
+            if (existing != null) {
+                xfMap[i] = existing;
+                xf.getParentNode().removeChild(xf);
+            } else {
+                xfMap[i] = next++;
+            }
+        }
+        updateCount(child(root, "cellXfs"), next);
+        report.stylesRemoved = cellXfs.size() - next;
+
+        return new StyleMap(document, xfMap);
+    }
+
+    private static void markComponents(Element xf, BitSet fonts, BitSet fills, BitSet borders) {
+        fonts.set(intAttribute(xf, "fontId"));
+        fills.set(intAttribute(xf, "fillId"));
+        borders.set(intAttribute(xf, "borderId"));
+    }
+
+    private static void remapComponents(Element xf, int[] fonts, int[] fills, int[] borders) {
+        remap(xf, "fontId", fonts);
+        remap(xf, "fillId", fills);
+        remap(xf, "borderId", borders);
+    }
+
+    private static void remap(Element element, String attribute, int[] map) {
+        if (!element.hasAttribute(attribute))
+            return;
+        int index = intAttribute(element, attribute);
+        element.setAttribute(attribute, String.valueOf(index < map.length ? map[index] : 0));
+    }
+
+    /**
+     * Drop the unused children of a fonts/fills/borders list and merge
+     * identical ones. The first required entries keep their positions.
+     *
+     * @return old index to new index
+     */
+    private static int[] dedupe(Element list, BitSet used, int required) {
+        List<Element> items = list == null ? List.of() : children(list, null);
+        int[] map = new int[items.size()];
+        Map<String, Integer> seen = new HashMap<>();
+        int next = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Element item = items.get(i);
+            if (!used.get(i)) {
+                list.removeChild(item);
+                continue;
+            }
+            Integer existing = i < required ? null : seen.get(canonical(item));
+            if (existing != null) {
+                map[i] = existing;
+                list.removeChild(item);
+            } else {
+                seen.putIfAbsent(canonical(item), next);
+                map[i] = next++;
+            }
+        }
+        if (list != null)
+            updateCount(list, next);
+        return map;
+    }
+
+    /**
+     * Order-independent text form of an element, for equality checks.
+     */
+    private static String canonical(Element element) {
+        StringBuilder builder = new StringBuilder();
+        appendCanonical(element, builder);
+        return builder.toString();
+    }
+
+    private static void appendCanonical(Element element, StringBuilder builder) {
+        builder.append('<').append(element.getLocalName());
+        NamedNodeMap attributes = element.getAttributes();
+        SortedMap<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Node attribute = attributes.item(i);
+            if (!"xmlns".equals(attribute.getPrefix()) && !"xmlns".equals(attribute.getNodeName()))
+                sorted.put(attribute.getNodeName(), attribute.getNodeValue());
+        }
+        sorted.forEach((key, value) -> builder.append(' ').append(key).append("=\"").append(value).append('"'));
+        builder.append('>');
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element childElement) {
+                appendCanonical(childElement, builder);
+            } else if (child.getNodeType() == Node.TEXT_NODE && !child.getNodeValue().isBlank()) {
+                builder.append(child.getNodeValue());
+            }
+        }
+        builder.append("</>");
+    }
+
+    private static Element child(Element parent, String localName) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element element && localName.equals(element.getLocalName()))
+                return element;
+        }
+        return null;
+    }
+
+    private static List<Element> children(Element parent, String localName) {
+        List<Element> children = new ArrayList<>();
+        if (parent == null)
+            return children;
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element element && (localName == null || localName.equals(element.getLocalName())))
+                children.add(element);
+        }
+        return children;
+    }
+
+    private static int intAttribute(Element element, String name) {
+        String value = element.getAttribute(name);
+        try {
+            return value.isEmpty() ? 0 : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void updateCount(Element element, int count) {
+        if (element != null && element.hasAttribute("count"))
+            element.setAttribute("count", String.valueOf(count));
+    }
+
+    private static void writeDocument(Document document, OutputStream out) throws TransformerException {
+        document.setXmlStandalone(true);
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.transform(new DOMSource(document), new StreamResult(StreamUtils.nonClosing(out)));
+    }
+
+    /**
+     * Old to new shared string index; -1 for strings no cell uses.
+     */
+    private static int[] stringMap(Usage usage) {
+        int length = usage.strings.length();
+        int[] map = new int[length];
+        int next = 0;
+        for (int i = 0; i < length; i++) {
+            map[i] = usage.strings.get(i) ? next++ : -1;
+        }
+        return map;
+    }
+
+    private static void writeSharedStrings(ZipFile zip, ZipEntry entry, int[] map, long references,
+            OutputStream out, Report report) throws IOException, XMLStreamException {
+        int unique = 0;
+        for (int value : map) {
+            if (value >= 0)
+                unique++;
+        }
+
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            // The StAX writer emits tiny writes; each one would otherwise be a separate deflate call
+            BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            XmlCopier copier = new XmlCopier(reader, OUTPUT_FACTORY.createXMLStreamWriter(buffered, "UTF-8"));
+            int index = -1;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "sst" -> {
+                            copier.start(Map.of("count", String.valueOf(references),
+                                    "uniqueCount", String.valueOf(unique)));
+                            continue;
+                        }
+                        case "si" -> {
+                            index++;
+                            if (index >= map.length || map[index] < 0) {
+                                skipElement(reader);
+                                report.sharedStringsRemoved++;
+                                continue;
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                copier.copy();
+            }
+            copier.finish();
+            buffered.flush();
+        }
+    }
+
+    private static void writeWorksheet(ZipFile zip, ZipEntry entry, Extent extent, StyleMap styles,
+            BitSet styledXfs, int[] strings, OutputStream out, Report report) throws IOException, XMLStreamException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            // The StAX writer emits tiny writes; each one would otherwise be a separate deflate call
+            BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            XmlCopier copier = new XmlCopier(reader, OUTPUT_FACTORY.createXMLStreamWriter(buffered, "UTF-8"));
+            int row = -1;
+            int column = -1;
+            boolean sharedString = false;
+            // <cols> is held back until a <col> survives: an empty <cols> is invalid
+            XmlCopier.Start cols = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    Map<String, String> changes = new HashMap<>();
+                    switch (reader.getLocalName()) {
+                        case "dimension" -> {
+                            if (extent.bounded)
+                                changes.put("ref", extent.reference());
+                        }
+                        case "cols" -> {
+                            cols = copier.capture(Map.of());
+                            continue;
+                        }
+                        case "col" -> {
+                            int min = parseInt(reader.getAttributeValue(null, "min"), 1) - 1;
+                            int max = parseInt(reader.getAttributeValue(null, "max"), min + 1) - 1;
+                            if (!isVisibleColumn(reader, styledXfs)) {
+                                if (min > extent.lastColumn) {
+                                    skipElement(reader);
+                                    continue;
+                                }
+                                if (max > extent.lastColumn)
+                                    changes.put("max", String.valueOf(extent.lastColumn + 1));
+                            }
+                            remapStyle(reader, "style", styles, changes);
+                            if (cols != null) {
+                                copier.start(cols);
+                                cols = null;
+                            }
+                        }
+                        case "row" -> {
+                            String r = reader.getAttributeValue(null, "r");
+                            row = r == null ? row + 1 : Integer.parseInt(r) - 1;
+                            column = -1;
+                            if (row > extent.lastRow) {
+                                skipElement(reader);
+                                report.rowsRemoved++;
+                                continue;
+                            }
+                            if (reader.getAttributeValue(null, "spans") != null && extent.bounded && extent.lastColumn >= 0)
+                                changes.put("spans", (extent.firstColumn + 1) + ":" + (extent.lastColumn + 1));
+                            remapStyle(reader, "s", styles, changes);
+                        }
+                        case "c" -> {
+                            String r = reader.getAttributeValue(null, "r");
+                            column = r == null ? column + 1 : cellColumn(r);
+                            if (column > extent.lastColumn) {
+                                skipElement(reader);
+                                continue;
+                            }
+                            sharedString = "s".equals(reader.getAttributeValue(null, "t"));
+                            remapStyle(reader, "s", styles, changes);
+                        }
+                        case "v" -> {
+                            if (sharedString && strings != null) {
+                                copier.start(Map.of());
+                                String text = reader.getElementText().trim();
+                                if (!text.isEmpty()) {
+                                    int index = Integer.parseInt(text);
+                                    int mapped = index < strings.length && strings[index] >= 0 ? strings[index] : index;
+                                    copier.characters(String.valueOf(mapped));
+                                }
+                                copier.end();
+                                continue;
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                    copier.start(changes);
+                    continue;
+                }
+                if (cols != null) {
+                    // Whitespace inside a <cols> that has not been written yet
+                    if (event == XMLStreamConstants.END_ELEMENT)
+                        cols = null;
+                    continue;
+                }
+                copier.copy();
+            }
+            copier.finish();
+            buffered.flush();
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed worksheet " + entry.getName(), e);
+        }
+    }
+
+    private static void remapStyle(XMLStreamReader reader, String attribute, StyleMap styles,
+            Map<String, String> changes) {
+        String index = reader.getAttributeValue(null, attribute);
+        if (styles != null && index != null && !index.isEmpty())
+            changes.put(attribute, String.valueOf(styles.map(Integer.parseInt(index))));
+    }
+
+    /**
+     * Re-encode a PNG or JPEG part in the same format, keeping it only if it
+     * got smaller.
+     *
+     * @return false if the original should be copied instead
+     */
+    private boolean writeRecompressedImage(ZipFile zip, ZipEntry entry, float quality, OutputStream out,
+            Report report) throws IOException {
+        String name = entry.getName().toLowerCase(Locale.ROOT);
+        String format = name.endsWith(".png") ? "png"
+                : name.endsWith(".jpg") || name.endsWith(".jpeg") ? "jpeg" : null;
+        if (format == null)
+            return false;
+
+        byte[] original;
+        try (InputStream in = zip.getInputStream(entry)) {
+            original = in.readAllBytes();
+        }
+        byte[] recompressed;
+        try {
+            ImageDecodeService.Decoded decoded = imageDecodeService.decode(new ByteArrayInputStream(original));
+            if (decoded == null || (format.equals("jpeg") && decoded.image.getColorModel().hasAlpha()))
+                return copy(original, out);
+            // For PNG the quality picks the deflate level; 0 is the strongest
+            recompressed = ImageEncoder.encode(decoded.image, format, format.equals("png") ? 0f : quality);
+        } catch (ImageTooLargeException | IOException e) {
+            return copy(original, out);
+        }
+        if (recompressed == null || recompressed.length >= original.length)
+            return copy(original, out);
+
+        out.write(recompressed);
+        report.imagesRecompressed++;
+        return true;
+    }
+
+    private static boolean copy(byte[] bytes, OutputStream out) throws IOException {
+        out.write(bytes);
+        return true;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+                depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT)
+                depth--;
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        return value == null || value.isEmpty() ? fallback : Integer.parseInt(value);
+    }
+
+    /**
+     * 0-based column of a reference like "AB12".
+     */
+    private static int cellColumn(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c == '$')
+                continue;
+            if (!Character.isLetter(c))
+                break;
+            column = column * 26 + (Character.toUpperCase(c) - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * 0-based row of a reference like "AB12".
+     */
+    private static int cellRow(String reference) {
+        int i = 0;
+        while (i < reference.length() && (Character.isLetter(reference.charAt(i)) || reference.charAt(i) == '$'))
+            i++;
+        return Integer.parseInt(reference.substring(i).replace("$", "")) - 1;
+    }
+
+    private static String cellName(int row, int column) {
+        StringBuilder letters = new StringBuilder();
+        for (int c = column + 1; c > 0; c = (c - 1) / 26) {
+            letters.insert(0, (char) ('A' + (c - 1) % 26));
+        }
+        return letters.append(row + 1).toString();
+    }
+
+    /**
+     * Copies the events of an XMLStreamReader to an XMLStreamWriter, with
+     * optional attribute changes on start tags. A start tag is held until the
+     * next event so that elements with no content come out as &lt;x/&gt;.
+     */
+    private static final class XmlCopier {
+
+        /**
+         * A captured start tag.
+         */
+        static final class Start {
+            final String prefix;
+            final String namespace;
+            final String localName;
+            final String[][] namespaces;
+            final String[][] attributes;
+
+            Start(String prefix, String namespace, String localName, String[][] namespaces, String[][] attributes) {
+                this.prefix = prefix;
+                this.namespace = namespace;
+                this.localName = localName;
+                this.namespaces = namespaces;
+                this.attributes = attributes;
+            }
+        }
+
+        private final XMLStreamReader reader;
+        private final XMLStreamWriter writer;
+        private Start pending;
+
+        XmlCopier(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+            this.reader = reader;
+            this.writer = writer;
+            writer.writeStartDocument("UTF-8", "1.0");
+        }
+
+        /**
+         * Capture the reader's current start tag, replacing the values of
+         * the unqualified attributes named in changes and adding the rest.
+         */
+        Start capture(Map<String, String> changes) {
+            String[][] namespaces = new String[reader.getNamespaceCount()][];
+            for (int i = 0; i < namespaces.length; i++) {
+                namespaces[i] = new String[] { reader.getNamespacePrefix(i), reader.getNamespaceURI(i) };
+            }
+            List<String[]> attributes = new ArrayList<>(reader.getAttributeCount() + changes.size());
+            Set<String> replaced = changes.isEmpty() ? Set.of() : new HashSet<>();
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                String prefix = reader.getAttributePrefix(i);
+                String namespace = reader.getAttributeNamespace(i);
+                String name = reader.getAttributeLocalName(i);
+                String value = reader.getAttributeValue(i);
+                if ((namespace == null || namespace.isEmpty()) && changes.containsKey(name)) {
+                    value = changes.get(name);
+                    replaced.add(name);
+                }
+                attributes.add(new String[] { prefix, namespace, name, value });
+            }
+            changes.forEach((name, value) -> {
+                if (!replaced.contains(name))
+                    attributes.add(new String[] { null, null, name, value });
+            });
+            return new Start(reader.getPrefix(), reader.getNamespaceURI(), reader.getLocalName(), namespaces,
+                    attributes.toArray(new String[0][]));
+        }
+
+        void start(Map<String, String> changes) throws XMLStreamException {
+            start(capture(changes));
+        }
+
+        void start(Start start) throws XMLStreamException {
+            flush(false);
+            pending = start;
+        }
+
+        void end() throws XMLStreamException {
+            if (pending != null) {
+                flush(true);
+            } else {
+                writer.writeEndElement();
+            }
+        }
+
+        void characters(String text) throws XMLStreamException {
+            flush(false);
+            writer.writeCharacters(text);
+        }
+
+        /**
+         * Copy the reader's current event unchanged.
+         */
+        void copy() throws XMLStreamException {
+            switch (reader.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT -> start(Map.of());
+                case XMLStreamConstants.END_ELEMENT -> end();
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE -> characters(reader.getText());
+                case XMLStreamConstants.CDATA -> {
+                    flush(false);
+                    writer.writeCData(reader.getText());
+                }
+                case XMLStreamConstants.COMMENT -> {
+                    flush(false);
+                    writer.writeComment(reader.getText());
+                }
+                case XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+                    flush(false);
+                    writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                }
+                default -> {
+                }
+            }
+        }
+
+        void finish() throws XMLStreamException {
+            flush(false);
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+            reader.close();
+        }
+
+        private void flush(boolean empty) throws XMLStreamException {
+            if (pending == null)
+                return;
+            Start start = pending;
+            pending = null;
+            String prefix = start.prefix == null ? "" : start.prefix;
+            String namespace = start.namespace == null ? "" : start.namespace;
+            if (empty) {
+                writer.writeEmptyElement(prefix, start.localName, namespace);
+            } else {
+                writer.writeStartElement(prefix, start.localName, namespace);
+            }
+            for (String[] ns : start.namespaces) {
+                if (ns[0] == null || ns[0].isEmpty()) {
+                    writer.writeDefaultNamespace(ns[1]);
+                } else {
+                    writer.writeNamespace(ns[0], ns[1]);
+                }
+            }
+            for (String[] attribute : start.attributes) {
+                if (attribute[1] == null || attribute[1].isEmpty()) {
+                    writer.writeAttribute(attribute[2], attribute[3]);
+                } else {
+                    writer.writeAttribute(attribute[0] == null ? "" : attribute[0], attribute[1], attribute[2],
+                            attribute[3]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.blog.backend.repository;
+
+import com.blog.backend.dto.CursorPage;
+import com.blog.backend.dto.JobApplicationResponse;
+import com.blog.backend.dto.JobCardResponse;
+import com.blog.backend.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The keyset listings must cost one SQL statement per page, whatever the page
+ * size or position, and walking the cursor must visit every row exactly once.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class JobListingQueryCountTest {
+
+    private static final int JOBS = 45;
+    private static final int APPLICANTS = 33;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobApplicationRepository jobApplicationRepository;
+
+    private Statistics statistics;
+    private User employer;
+    private User seeker;
+    private Job popularJob;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        employer = persistUser("employer@example.com", JobRole.EMPLOYER);
+        seeker = persistUser("seeker@example.com", JobRole.JOB_SEEKER);
+
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            Job job = new Job();
+            job.setTitle("Job " + i);
+            job.setDescription("Description " + i);
+            job.setCategory(JobCategory.values()[i % JobCategory.values().length]);
+            job.setJobType(JobType.FULL_TIME);
+            job.setCompanyName("Company " + i);
+            job.setStatus(JobStatus.ACTIVE);
+            job.setPostedBy(employer);
+            entityManager.persist(job);
+            jobs.add(job);
+        }
+        popularJob = jobs.get(0);
+
+        for (Job job : jobs) {
+            persistApplication(job, seeker);
+        }
+        for (int i = 0; i < APPLICANTS; i++) {
+            persistApplication(popularJob, persistUser("applicant" + i + "@example.com", JobRole.JOB_SEEKER));
+        }
+
+        // Nothing may be answered from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void activeJobsCostOneQueryPerPage() {
+        for (int size : new int[] { 1, 7, 20, 100 }) {
+            List<JobCardResponse> all = walk(size, (after, limit) -> jobRepository.findCardsByStatus(
+                    JobStatus.ACTIVE, after.getTimestamp(), after.getId(), limit), JobListingQueryCountTest::jobCursor);
+            assertThat(all).hasSize(JOBS);
+            assertThat(new HashSet<>(all.stream().map(JobCardResponse::getId).toList())).hasSize(JOBS);
+        }
+    }
+
+    @Test
+    void searchAndCategoryListingsCostOneQueryPerPage() {
+        walk(5, (after, limit) -> jobRepository.searchCards("job", JobStatus.ACTIVE, after.getTimestamp(),
+                after.getId(), limit), JobListingQueryCountTest::jobCursor);
+        walk(2, (after, limit) -> jobRepository.findCardsByCategoryAndStatus(JobCategory.values()[0],
+                JobStatus.ACTIVE, after.getTimestamp(), after.getId(), limit), JobListingQueryCountTest::jobCursor);
+    }
+
+    @Test
+    void employerJobsCostOneQueryPerPage() {
+        List<JobCardResponse> all = walk(10, (after, limit) -> jobRepository.findCardsByPostedBy(employer,
+                after.getTimestamp(), after.getId(), limit), JobListingQueryCountTest::jobCursor);
+        assertThat(all).hasSize(JOBS);
+    }
+
+    @Test
+    void applicationListingsCostOneQueryPerPage() {
+        List<JobApplicationResponse> forJob = walk(4, (after, limit) -> jobApplicationRepository.findCardsByJobId(
+                popularJob.getId(), after.getTimestamp(), after.getId(), limit),
+                JobListingQueryCountTest::applicationCursor);
+        // Every applicant's name comes from the same statement, not a lazy load per row
+        assertThat(forJob).hasSize(APPLICANTS + 1).allSatisfy(a -> assertThat(a.getApplicant()).isNotNull());
+
+        List<JobApplicationResponse> bySeeker = walk(6, (after, limit) -> jobApplicationRepository
+                .findCardsByApplicantId(seeker.getId(), after.getTimestamp(), after.getId(), limit),
+                JobListingQueryCountTest::applicationCursor);
+        assertThat(bySeeker).hasSize(JOBS);
+    }
+
+    @Test
+    void newestJobsFallbackSkipsJobsAlreadyAppliedTo() {
+        CursorPage.Cursor first = CursorPage.Cursor.FIRST;
+        // The seeker applied everywhere; an applicant of the popular job only there
+        assertThat(jobRepository.findCardsByStatusNotAppliedBy(JobStatus.ACTIVE, seeker.getId(),
+                first.getTimestamp(), first.getId(), PageRequest.ofSize(100))).isEmpty();
+
+        Long applicantId = jobApplicationRepository.findCardsByJobId(popularJob.getId(), first.getTimestamp(),
+                first.getId(), PageRequest.ofSize(1)).get(0).getApplicant().getId();
+        List<JobCardResponse> newest = walk(10, (after, limit) -> jobRepository.findCardsByStatusNotAppliedBy(
+                JobStatus.ACTIVE, applicantId, after.getTimestamp(), after.getId(), limit),
+                JobListingQueryCountTest::jobCursor);
+        assertThat(newest).hasSize(JOBS - 1).noneMatch(job -> job.getId().equals(popularJob.getId()));
+    }
+
+    /**
+     * Follow the cursor from the first page to the last the way JobController
+     * does, checking that each page is exactly one prepared statement.
+     */
+    private <T> List<T> walk(int size, BiFunction<CursorPage.Cursor, PageRequest, List<T>> query,
+            Function<T, CursorPage.Cursor> cursorOf) {
+        List<T> all = new ArrayList<>();
+        String token = null;
+        do {
+            statistics.clear();
+            CursorPage<T> page = CursorPage.of(
+                    query.apply(CursorPage.Cursor.decode(token), PageRequest.ofSize(size + 1)), size, cursorOf);
+            assertThat(statistics.getPrepareStatementCount())
+                    .as("statements for one page of %d", size).isEqualTo(1);
+
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(size);
+            all.addAll(page.getItems());
+            token = page.getNextCursor();
+        } while (token != null);
+        return all;
+    }
+
+    private static CursorPage.Cursor jobCursor(JobCardResponse job) {
+        return new CursorPage.Cursor(job.getCreatedAt(), job.getId());
+    }
+
+    private static CursorPage.Cursor applicationCursor(JobApplicationResponse application) {
+        return new CursorPage.Cursor(application.getAppliedAt(), application.getId());
+    }
+
+    private User persistUser(String email, JobRole jobRole) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("x");
+        user.setDisplayName(email);
+        user.setJobRole(jobRole);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private void persistApplication(Job job, User applicant) {
+        JobApplication application = new JobApplication();
+        application.setJob(job);
+        application.setApplicant(applicant);
+        application.setEmail(applicant.getEmail());
+        entityManager.persist(application);
+    }
+}
@@ -0,0 +1,94 @@
+package com.blog.backend.security;
+
+import com.blog.backend.model.Role;
+import com.blog.backend.model.User;
+import com.blog.backend.service.PermissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every @RequiresCapability endpoint against every role: the interceptor must
+ * let a request through exactly when PermissionService grants the capability,
+ * so no controller can disagree with the matrix.
+ */
+class CapabilityInterceptorTest {
+
+    private final PermissionService permissionService = new PermissionService();
+    private final CapabilityInterceptor interceptor = new CapabilityInterceptor();
+    private List<HandlerMethod> guarded;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(interceptor, "permissionService", permissionService);
+        ReflectionTestUtils.setField(interceptor, "objectMapper", new ObjectMapper());
+
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        guarded = new ArrayList<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents("com.blog.backend.controller")) {
+            Class<?> type = Class.forName(definition.getBeanClassName());
+            // Only the method's annotations matter, so no controller instance is needed
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(RequiresCapability.class))
+                    guarded.add(new HandlerMethod(new Object(), method));
+            }
+        }
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void guardedEndpointsFollowTheMatrix() throws Exception {
+        assertThat(guarded).isNotEmpty();
+        for (HandlerMethod handler : guarded) {
+            RequiresCapability required = handler.getMethodAnnotation(RequiresCapability.class);
+            for (Role role : Role.values()) {
+                User user = new User();
+                user.setRole(role);
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                boolean allowed = interceptor.preHandle(new MockHttpServletRequest(), response, handler);
+
+                String label = handler.getShortLogMessage() + " as " + role;
+                assertEquals(permissionService.has(user, required.value()), allowed, label);
+                if (!allowed) {
+                    assertEquals(403, response.getStatus(), label);
+                    assertThat(response.getContentAsString()).as(label).contains(required.message());
+                }
+            }
+        }
+    }
+
+    @Test
+    void anonymousCallersGetUnauthorized() throws Exception {
+        for (HandlerMethod handler : guarded) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler)).isFalse();
+            assertEquals(401, response.getStatus(), handler.getShortLogMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.blog.backend.security;
+
+import com.blog.backend.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What JwtAuthenticationFilter pays per request to read a token: the old
+ * path (validateToken, getEmailFromToken and getRoleFromToken, each building
+ * the HMAC key and a parser and verifying the token again) against one
+ * parseToken call, cold and answered from the verified-token cache. The
+ * revocation check runs in both parseToken cases and is a Bloom filter miss.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtValidation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong";
+
+    private String token;
+    private JwtUtil cached;
+    private JwtUtil uncached;
+
+    @Setup
+    public void setUp() {
+        TokenRevocationService tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenRevocationService, "filter", new BloomFilter(100_000, 0.001));
+
+        cached = jwtUtil(tokenRevocationService, 10_000);
+        // A cache that keeps nothing, so every call verifies the signature
+        uncached = jwtUtil(tokenRevocationService, 0);
+        token = cached.generateToken("user@example.com", 42L, "USER");
+        cached.parseToken(token);
+    }
+
+    @Benchmark
+    public void oldThreeVerifications(Blackhole blackhole) {
+        blackhole.consume(parse(token) != null);
+        blackhole.consume(parse(token).getSubject());
+        blackhole.consume(parse(token).get("role", String.class));
+    }
+
+    @Benchmark
+    public Claims parseTokenCold() {
+        return uncached.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims parseTokenCached() {
+        return cached.parseToken(token);
+    }
+
+    /**
+     * The pre-cache JwtUtil body shared by its getters.
+     */
+    private static Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtUtil jwtUtil(TokenRevocationService tokenRevocationService, int cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", cacheSize);
+        ReflectionTestUtils.setField(jwtUtil, "tokenRevocationService", tokenRevocationService);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,125 @@
+package com.blog.backend.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImageResizeService against the getScaledInstance(SCALE_SMOOTH) path it
+ * replaced, for a photo-sized JPEG scaled to 800 px wide: once from the
+ * encoded upload (decode included, where subsampling pays off) and once from
+ * an already decoded image.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ImageResize
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class ImageResizeBenchmark {
+
+    private static final int TARGET_WIDTH = 800;
+
+    @Param({ "3000x2000", "6000x4000" })
+    public String source;
+
+    private byte[] jpeg;
+    private BufferedImage decoded;
+    private int targetHeight;
+    private ImageResizeService imageResizeService;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] size = source.split("x");
+        decoded = photo(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+        targetHeight = ImageResizeService.targetSize(decoded.getWidth(), decoded.getHeight(), TARGET_WIDTH, 0)[1];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(decoded, "jpg", bytes);
+        jpeg = bytes.toByteArray();
+
+        ImageDecodeService imageDecodeService = new ImageDecodeService();
+        ReflectionTestUtils.setField(imageDecodeService, "maxDecodedPixels", 40_000_000L);
+        ReflectionTestUtils.setField(imageDecodeService, "maxSourcePixels", 400_000_000L);
+        imageResizeService = new ImageResizeService();
+        ReflectionTestUtils.setField(imageResizeService, "imageDecodeService", imageDecodeService);
+        imageResizeService.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        imageResizeService.shutdown();
+    }
+
+    @Benchmark
+    public BufferedImage scaledInstanceFromUpload() throws IOException {
+        return scaledInstance(ImageIO.read(new ByteArrayInputStream(jpeg)));
+    }
+
+    @Benchmark
+    public BufferedImage resizeServiceFromUpload() throws IOException {
+        return imageResizeService.resize(new ByteArrayInputStream(jpeg), TARGET_WIDTH, 0, true).image;
+    }
+
+    @Benchmark
+    public BufferedImage scaledInstanceDecoded() {
+        return scaledInstance(decoded);
+    }
+
+    @Benchmark
+    public BufferedImage resizeServiceDecoded() {
+        return imageResizeService.resize(decoded, TARGET_WIDTH, targetHeight);
+    }
+
+    /**
+     * The old ImageToolsController.resizeImage body.
+     */
+    private BufferedImage scaledInstance(BufferedImage original) {
+        Image scaled = original.getScaledInstance(TARGET_WIDTH, targetHeight, Image.SCALE_SMOOTH);
+        BufferedImage resized = new BufferedImage(TARGET_WIDTH, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        g.drawImage(scaled, 0, 0, null);
+        g.dispose();
+        return resized;
+    }
+
+    /**
+     * Gradients with noise on top, so the JPEG is about as hard to decode as a
+     * real photo rather than mostly flat colour.
+     */
+    private static BufferedImage photo(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), width, height, new Color(230, 180, 60)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                int noise = random.nextInt(32) - 16;
+                int r = clamp(((rgb >> 16) & 0xff) + noise);
+                int gr = clamp(((rgb >> 8) & 0xff) + noise);
+                int b = clamp((rgb & 0xff) + noise);
+                image.setRGB(x, y, (r << 16) | (gr << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
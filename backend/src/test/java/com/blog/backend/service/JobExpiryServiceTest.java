@@ -0,0 +1,78 @@
+package com.blog.backend.service;
+
+import com.blog.backend.event.JobsExpiredEvent;
+import com.blog.backend.model.JobStatus;
+import com.blog.backend.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * A failed close batch must leave its jobs on the wheel for the next tick,
+ * while the batches that did commit are still announced.
+ */
+class JobExpiryServiceTest {
+
+    private static final int JOBS = 1200;
+
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final JobExpiryService jobExpiryService = new JobExpiryService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jobExpiryService, "jobRepository", jobRepository);
+        ReflectionTestUtils.setField(jobExpiryService, "eventPublisher", eventPublisher);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (long id = 1; id <= JOBS; id++) {
+            jobExpiryService.track(id, JobStatus.ACTIVE, yesterday);
+        }
+    }
+
+    @Test
+    void failedBatchIsRetriedAndCommittedBatchesArePublished() {
+        List<List<Long>> attempted = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        when(jobRepository.closeActiveJobs(anyList(), any())).thenAnswer(call -> {
+            List<Long> ids = new ArrayList<>(call.getArgument(0));
+            attempted.add(ids);
+            if (calls.incrementAndGet() == 2)
+                throw new QueryTimeoutException("timeout");
+            return ids.size();
+        });
+
+        assertThatThrownBy(jobExpiryService::closeExpiredJobs).isInstanceOf(QueryTimeoutException.class);
+
+        ArgumentCaptor<JobsExpiredEvent> published = ArgumentCaptor.forClass(JobsExpiredEvent.class);
+        verify(eventPublisher).publishEvent(published.capture());
+        assertThat(published.getValue().getJobIds()).containsExactlyElementsOf(attempted.get(0));
+
+        // Everything the first batch did not close comes back on the next tick
+        attempted.clear();
+        jobExpiryService.closeExpiredJobs();
+        Set<Long> retried = new HashSet<>();
+        attempted.forEach(retried::addAll);
+        assertThat(retried).hasSize(JOBS - 500).doesNotContainAnyElementsOf(published.getValue().getJobIds());
+
+        // and nothing is left after that
+        clearInvocations(jobRepository);
+        jobExpiryService.closeExpiredJobs();
+        verifyNoInteractions(jobRepository);
+    }
+}
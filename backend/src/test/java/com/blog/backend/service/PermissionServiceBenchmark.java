@@ -0,0 +1,114 @@
+package com.blog.backend.service;
+
+import com.blog.backend.model.Capability;
+import com.blog.backend.model.Role;
+import com.blog.backend.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.blog.backend.model.Capability.*;
+
+/**
+ * Cost of one permission check: PermissionService.has, a map lookup and an
+ * AND against the role's capability mask, against the getRole() == chains
+ * the named checks used before the matrix. Each invocation asks every role
+ * the same six questions, so roles late in a chain pay for their position.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PermissionServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PermissionServiceBenchmark.CHECKS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermissionServiceBenchmark {
+
+    private static final Capability[] ASKED = {
+            CREATE_POST, PUBLISH_POST, VIEW_ANALYTICS, MANAGE_CATEGORIES, VIEW_USER_LIST, DASHBOARD_ACCESS
+    };
+    static final int CHECKS = 6 * 6; // roles x ASKED
+
+    private final PermissionService permissionService = new PermissionService();
+    private User[] users;
+
+    @Setup
+    public void setUp() {
+        Role[] roles = Role.values();
+        users = new User[roles.length];
+        for (int i = 0; i < roles.length; i++) {
+            users[i] = new User();
+            users[i].setRole(roles[i]);
+        }
+        if (roles.length * ASKED.length != CHECKS)
+            throw new IllegalStateException("CHECKS is out of date");
+    }
+
+    @Benchmark
+    public void capabilityMask(Blackhole blackhole) {
+        for (User user : users) {
+            for (Capability capability : ASKED) {
+                blackhole.consume(permissionService.has(user, capability));
+            }
+        }
+    }
+
+    @Benchmark
+    public void roleChains(Blackhole blackhole) {
+        for (User user : users) {
+            blackhole.consume(canCreatePost(user));
+            blackhole.consume(canPublishPost(user));
+            blackhole.consume(canViewAnalytics(user));
+            blackhole.consume(canManageCategories(user));
+            blackhole.consume(canViewUserList(user));
+            blackhole.consume(hasDashboardAccess(user));
+        }
+    }
+
+    // The pre-matrix PermissionService bodies
+
+    private static boolean canCreatePost(User user) {
+        if (user == null)
+            return false;
+        return user.getRole() == Role.USER ||
+                user.getRole() == Role.VIEWER ||
+                user.getRole() == Role.WRITER ||
+                user.getRole() == Role.EDITOR ||
+                user.getRole() == Role.ADMIN;
+    }
+
+    private static boolean canPublishPost(User user) {
+        if (user == null)
+            return false;
+        return user.getRole() == Role.ADMIN || user.getRole() == Role.EDITOR;
+    }
+
+    private static boolean canViewAnalytics(User user) {
+        if (user == null)
+            return false;
+        return user.getRole() == Role.ADMIN;
+    }
+
+    private static boolean canManageCategories(User user) {
+        if (user == null)
+            return false;
+        return user.getRole() == Role.ADMIN || user.getRole() == Role.EDITOR;
+    }
+
+    private static boolean canViewUserList(User user) {
+        if (user == null)
+            return false;
+        return user.getRole() == Role.ADMIN || user.getRole() == Role.EDITOR;
+    }
+
+    private static boolean hasDashboardAccess(User user) {
+        if (user == null)
+            return false;
+        return user.getRole() == Role.ADMIN ||
+                user.getRole() == Role.EDITOR ||
+                user.getRole() == Role.REVIEWER;
+    }
+}
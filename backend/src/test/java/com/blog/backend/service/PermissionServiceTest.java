@@ -0,0 +1,85 @@
+package com.blog.backend.service;
+
+import com.blog.backend.model.Capability;
+import com.blog.backend.model.Role;
+import com.blog.backend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.blog.backend.model.Capability.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every role against every capability. The expected table is spelled out
+ * here on purpose, so a change to the matrix in PermissionService has to be
+ * made twice and shows up in review.
+ */
+class PermissionServiceTest {
+
+    private static final Map<Role, Set<Capability>> EXPECTED = new EnumMap<>(Role.class);
+
+    static {
+        EXPECTED.put(Role.ADMIN, EnumSet.allOf(Capability.class));
+        EXPECTED.put(Role.EDITOR, EnumSet.of(CREATE_POST, EDIT_ANY_POST, DELETE_ANY_POST, PUBLISH_POST,
+                VIEW_USER_LIST, MANAGE_CATEGORIES, MANAGE_DELETION_REQUESTS, DASHBOARD_ACCESS));
+        EXPECTED.put(Role.REVIEWER, EnumSet.of(EDIT_ANY_POST, DASHBOARD_ACCESS));
+        EXPECTED.put(Role.WRITER, EnumSet.of(CREATE_POST));
+        EXPECTED.put(Role.USER, EnumSet.of(CREATE_POST));
+        EXPECTED.put(Role.VIEWER, EnumSet.of(CREATE_POST));
+    }
+
+    private final PermissionService permissionService = new PermissionService();
+
+    @Test
+    void everyRoleIsCovered() {
+        assertThat(EXPECTED.keySet()).containsExactlyInAnyOrder(Role.values());
+    }
+
+    @Test
+    void everyRoleAndCapabilityMatchesTheMatrix() {
+        for (Role role : Role.values()) {
+            User user = user(role);
+            for (Capability capability : Capability.values()) {
+                assertEquals(EXPECTED.get(role).contains(capability), permissionService.has(user, capability),
+                        role + " / " + capability);
+            }
+        }
+    }
+
+    @Test
+    void namedChecksAgreeWithTheMatrix() {
+        for (Role role : Role.values()) {
+            User user = user(role);
+            Set<Capability> granted = EXPECTED.get(role);
+            assertEquals(granted.contains(CREATE_POST), permissionService.canCreatePost(user), role.name());
+            assertEquals(granted.contains(DELETE_ANY_POST), permissionService.canDeletePost(user, null), role.name());
+            assertEquals(granted.contains(PUBLISH_POST), permissionService.canPublishPost(user, null), role.name());
+            assertEquals(granted.contains(REVIEW_POST), permissionService.canReviewPost(user), role.name());
+            assertEquals(granted.contains(VIEW_ANALYTICS), permissionService.canViewAnalytics(user), role.name());
+            assertEquals(granted.contains(MANAGE_USERS), permissionService.canManageUsers(user), role.name());
+            assertEquals(granted.contains(VIEW_USER_LIST), permissionService.canViewUserList(user), role.name());
+            assertEquals(granted.contains(MANAGE_CATEGORIES), permissionService.canManageCategories(user),
+                    role.name());
+            assertEquals(granted.contains(DASHBOARD_ACCESS), permissionService.hasDashboardAccess(user), role.name());
+        }
+    }
+
+    @Test
+    void missingUserOrRoleHasNothing() {
+        for (Capability capability : Capability.values()) {
+            assertThat(permissionService.has(null, capability)).isFalse();
+            assertThat(permissionService.has(user(null), capability)).isFalse();
+        }
+    }
+
+    private static User user(Role role) {
+        User user = new User();
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,151 @@
+package com.blog.backend.service;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.sl.usermodel.PictureData;
+import org.apache.poi.sl.usermodel.ShapeType;
+import org.apache.poi.xslf.usermodel.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slides per second through PptRenderService.writePdf for a generated
+ * 100-slide deck at the default 150 DPI, against drawing the same slides
+ * one after another from a single XMLSlideShow. The service should scale
+ * with the pool on a multi-core machine; on one core the difference is what
+ * reopening the package for every range of slides costs.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PptRender
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(PptRenderBenchmark.SLIDES)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+public class PptRenderBenchmark {
+
+    static final int SLIDES = 100;
+    private static final int DPI = 150;
+    private static final float QUALITY = 0.9f;
+
+    private File deck;
+    private PptRenderService pptRenderService;
+
+    @Setup
+    public void setUp() throws IOException {
+        deck = File.createTempFile("ppt-render-benchmark-", ".pptx");
+        writeDeck(deck);
+
+        pptRenderService = new PptRenderService();
+        ReflectionTestUtils.setField(pptRenderService, "slidesPerTask", 16);
+        pptRenderService.init();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pptRenderService.shutdown();
+        Files.deleteIfExists(deck.toPath());
+    }
+
+    @Benchmark
+    public void renderService() throws IOException {
+        pptRenderService.writePdf(deck, DPI, QUALITY, OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Every slide drawn and added to the PDF in turn on the calling thread.
+     */
+    @Benchmark
+    public void renderSerial() throws IOException, InvalidFormatException {
+        OPCPackage pkg = OPCPackage.open(deck, PackageAccess.READ);
+        try (PDDocument pdf = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            XMLSlideShow ppt = new XMLSlideShow(pkg);
+            Dimension pageSize = ppt.getPageSize();
+            PDRectangle mediaBox = new PDRectangle((float) pageSize.getWidth(), (float) pageSize.getHeight());
+            double scale = DPI / 72.0;
+            int width = (int) Math.round(pageSize.getWidth() * scale);
+            int height = (int) Math.round(pageSize.getHeight() * scale);
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (XSLFSlide slide : ppt.getSlides()) {
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.scale(scale, scale);
+                slide.draw(g);
+                g.dispose();
+
+                PDPage page = new PDPage(mediaBox);
+                pdf.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                    content.drawImage(JPEGFactory.createFromByteArray(pdf, ImageEncoder.encode(image, "jpeg", QUALITY)),
+                            0, 0, mediaBox.getWidth(), mediaBox.getHeight());
+                }
+            }
+            pdf.save(OutputStream.nullOutputStream());
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    /**
+     * Slides with a filled heading shape, five wrapped bullets and a
+     * picture, so each one exercises text layout, shapes and image drawing.
+     */
+    private static void writeDeck(File target) throws IOException {
+        try (XMLSlideShow ppt = new XMLSlideShow()) {
+            XSLFPictureData picture = ppt.addPicture(photo(), PictureData.PictureType.PNG);
+            for (int n = 1; n <= SLIDES; n++) {
+                XSLFSlide slide = ppt.createSlide();
+                XSLFAutoShape heading = slide.createAutoShape();
+                heading.setShapeType(ShapeType.ROUND_RECT);
+                heading.setAnchor(new Rectangle(50, 40, 620, 120));
+                heading.setFillColor(new Color(40, 90, 200));
+                heading.setText("Slide " + n + " heading");
+
+                XSLFTextBox body = slide.createTextBox();
+                body.setAnchor(new Rectangle(50, 190, 420, 300));
+                for (int i = 0; i < 5; i++) {
+                    XSLFTextParagraph paragraph = body.addNewTextParagraph();
+                    paragraph.setBullet(true);
+                    paragraph.addNewTextRun().setText("Bullet point " + i + " with enough text to wrap in the box");
+                }
+                slide.createPicture(picture).setAnchor(new Rectangle(490, 200, 200, 150));
+            }
+            try (OutputStream out = new FileOutputStream(target)) {
+                ppt.write(out);
+            }
+        }
+    }
+
+    private static byte[] photo() throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), 640, 480, new Color(230, 180, 60)));
+        g.fillRect(0, 0, 640, 480);
+        g.dispose();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+}
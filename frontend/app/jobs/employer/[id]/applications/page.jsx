@@ -11,6 +11,8 @@ export default function ApplicationsPage() {
     const [job, setJob] = useState(null);
     const [applications, setApplications] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         fetchJobAndApplications();
@@ -30,17 +32,7 @@ export default function ApplicationsPage() {
                 setJob(jobData);
             }
 
-            // Fetch applications
-            const appsResponse = await fetch(`${API_BASE_URL}/api/jobs/${params.id}/applications`, {
-                headers: {
-                    'Authorization': `Bearer ${localStorage.getItem('token')}`,
-                },
-            });
-
-            if (appsResponse.ok) {
-                const appsData = await appsResponse.json();
-                setApplications(appsData);
-            }
+            await fetchApplications();
         } catch (error) {
             console.error('Error fetching data:', error);
         } finally {
@@ -48,6 +40,32 @@ export default function ApplicationsPage() {
         }
     };
 
+    const fetchApplications = async (cursor = null) => {
+        const query = cursor ? `?size=20&cursor=${encodeURIComponent(cursor)}` : '?size=20';
+        const appsResponse = await fetch(`${API_BASE_URL}/api/jobs/${params.id}/applications${query}`, {
+            headers: {
+                'Authorization': `Bearer ${localStorage.getItem('token')}`,
+            },
+        });
+
+        if (appsResponse.ok) {
+            const { items, nextCursor: next } = await appsResponse.json();
+            setApplications(prev => cursor ? [...prev, ...items] : items);
+            setNextCursor(next);
+        }
+    };
+
+    const loadMore = async () => {
+        setLoadingMore(true);
+        try {
+            await fetchApplications(nextCursor);
+        } catch (error) {
+            console.error('Error fetching applications:', error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     if (loading) {
         return (
             <div className="min-h-screen flex items-center justify-center bg-background">
@@ -74,7 +92,7 @@ export default function ApplicationsPage() {
                         <p className="text-muted-foreground mb-4">{job.companyName}</p>
                         <div className="flex items-center gap-4 text-sm">
                             <span className="px-3 py-1 rounded-full bg-primary/10 text-primary font-medium">
-                                {applications.length} {applications.length === 1 ? 'Application' : 'Applications'}
+                                {job.applicantsCount ?? applications.length} {(job.applicantsCount ?? applications.length) === 1 ? 'Application' : 'Applications'}
                             </span>
                             <span className="text-muted-foreground">
                                 Posted {new Date(job.createdAt).toLocaleDateString()}
@@ -183,6 +201,18 @@ export default function ApplicationsPage() {
                         ))}
                     </div>
                 )}
+
+                {nextCursor && (
+                    <div className="mt-8 text-center">
+                        <button
+                            onClick={loadMore}
+                            disabled={loadingMore}
+                            className="px-6 py-3 rounded-lg bg-secondary/10 border border-border hover:border-primary/50 hover:bg-secondary/20 transition-all text-sm font-medium disabled:opacity-50"
+                        >
+                            {loadingMore ? 'Loading...' : 'Load more applications'}
+                        </button>
+                    </div>
+                )}
             </div>
         </div>
     );
@@ -20,21 +20,29 @@ export default function EmployerDashboard() {
 
     const fetchMyJobs = async () => {
         try {
-            const response = await fetch(`${API_BASE_URL}/api/jobs/my-jobs`, {
-                headers: {
-                    'Authorization': `Bearer ${localStorage.getItem('token')}`,
-                },
-            });
+            // Follow the cursor to the end: the stats count every job, not just the first page
+            let data = [];
+            let cursor = null;
+            do {
+                const query = cursor ? `?size=100&cursor=${encodeURIComponent(cursor)}` : '?size=100';
+                const response = await fetch(`${API_BASE_URL}/api/jobs/my-jobs${query}`, {
+                    headers: {
+                        'Authorization': `Bearer ${localStorage.getItem('token')}`,
+                    },
+                });
+                if (!response.ok) return;
 
-            if (response.ok) {
-                const data = await response.json();
-                setJobs(data);
+                const page = await response.json();
+                data = data.concat(page.items);
+                cursor = page.nextCursor;
+            } while (cursor);
 
-                // Calculate stats
-                const active = data.filter(j => j.status === 'ACTIVE').length;
-                const closed = data.filter(j => j.status === 'CLOSED').length;
-                setStats({ total: data.length, active, closed });
-            }
+            setJobs(data);
+
+            // Calculate stats
+            const active = data.filter(j => j.status === 'ACTIVE').length;
+            const closed = data.filter(j => j.status === 'CLOSED').length;
+            setStats({ total: data.length, active, closed });
         } catch (error) {
             console.error('Error fetching jobs:', error);
         } finally {
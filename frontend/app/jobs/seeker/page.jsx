@@ -12,6 +12,8 @@ export default function JobSeekerDashboard() {
     const [jobs, setJobs] = useState([]);
     const [filteredJobs, setFilteredJobs] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [searchQuery, setSearchQuery] = useState('');
     const [selectedCategory, setSelectedCategory] = useState('');
     const [categories, setCategories] = useState([]);
@@ -38,26 +40,33 @@ export default function JobSeekerDashboard() {
         }
     };
 
-    const fetchJobs = async () => {
+    const fetchJobs = async (cursor = null) => {
         try {
-            const response = await fetch(`${API_BASE_URL}/api/jobs`, {
+            const query = cursor ? `?size=20&cursor=${encodeURIComponent(cursor)}` : '?size=20';
+            const response = await fetch(`${API_BASE_URL}/api/jobs${query}`, {
                 headers: {
                     'Authorization': `Bearer ${localStorage.getItem('token')}`,
                 },
             });
 
             if (response.ok) {
-                const data = await response.json();
-                setJobs(data);
-                setFilteredJobs(data);
+                const { items, nextCursor: next } = await response.json();
+                setJobs(prev => cursor ? [...prev, ...items] : items);
+                setNextCursor(next);
             }
         } catch (error) {
             console.error('Error fetching jobs:', error);
         } finally {
             setLoading(false);
+            setLoadingMore(false);
         }
     };
 
+    const loadMore = () => {
+        setLoadingMore(true);
+        fetchJobs(nextCursor);
+    };
+
     const filterJobs = () => {
         let filtered = [...jobs];
 
@@ -142,7 +151,7 @@ export default function JobSeekerDashboard() {
                 <div className="mb-8 flex items-start justify-between">
                     <div>
                         <h1 className="text-4xl font-bold mb-2">Find Your Dream Job</h1>
-                        <p className="text-muted-foreground">Browse {jobs.length} active tech opportunities</p>
+                        <p className="text-muted-foreground">Browse {jobs.length}{nextCursor ? '+' : ''} active tech opportunities</p>
                     </div>
                     <button
                         onClick={handleSwitchRole}
@@ -283,6 +292,18 @@ export default function JobSeekerDashboard() {
                         })}
                     </div>
                 )}
+
+                {nextCursor && (
+                    <div className="mt-8 text-center">
+                        <button
+                            onClick={loadMore}
+                            disabled={loadingMore}
+                            className="px-6 py-3 rounded-lg bg-secondary/10 border border-border hover:border-primary/50 hover:bg-secondary/20 transition-all text-sm font-medium disabled:opacity-50"
+                        >
+                            {loadingMore ? 'Loading...' : 'Load more jobs'}
+                        </button>
+                    </div>
+                )}
             </div>
 
             {/* Custom Dialog */}
@@ -14,6 +14,7 @@ export default function DownscaleImagesPage() {
     const [height, setHeight] = useState(600);
     const [processing, setProcessing] = useState(false);
     const [processed, setProcessed] = useState(null);
+    const [extension, setExtension] = useState('jpg');
 
     const handleFileChange = (e) => {
         const selectedFile = e.target.files?.[0];
@@ -44,6 +45,8 @@ export default function DownscaleImagesPage() {
             if (!response.ok) throw new Error('Resize failed');
 
             const blob = await response.blob();
+            // PNG, GIF and transparent sources come back as PNG, everything else as JPEG
+            setExtension(blob.type === 'image/png' ? 'png' : 'jpg');
             const url = URL.createObjectURL(blob);
             setProcessed(url);
         } catch (err) {
@@ -57,7 +60,7 @@ export default function DownscaleImagesPage() {
         if (!processed) return;
         const link = document.createElement('a');
         link.href = processed;
-        link.download = 'downscaled.jpg';
+        link.download = `downscaled.${extension}`;
         link.click();
     };
 
@@ -13,6 +13,7 @@ export default function UpscaleImagesPage() {
     const [scale, setScale] = useState(2);
     const [processing, setProcessing] = useState(false);
     const [processed, setProcessed] = useState(null);
+    const [extension, setExtension] = useState('jpg');
 
     const handleFileChange = (e) => {
         const selectedFile = e.target.files?.[0];
@@ -58,6 +59,8 @@ export default function UpscaleImagesPage() {
                 if (!response.ok) throw new Error('Upscale failed');
 
                 const blob = await response.blob();
+                // PNG, GIF and transparent sources come back as PNG, everything else as JPEG
+                setExtension(blob.type === 'image/png' ? 'png' : 'jpg');
                 const url = URL.createObjectURL(blob);
                 setProcessed(url);
             } catch (err) {
@@ -72,7 +75,7 @@ export default function UpscaleImagesPage() {
         if (!processed) return;
         const link = document.createElement('a');
         link.href = processed;
-        link.download = 'upscaled.jpg';
+        link.download = `upscaled.${extension}`;
         link.click();
     };
 
@@ -109,6 +109,13 @@ export const AuthProvider = ({ children }) => {
     };
 
     const logout = () => {
+        // Revoke the token server-side; the local session is cleared regardless
+        if (token) {
+            fetch(`${API_BASE_URL}/api/auth/logout`, {
+                method: 'POST',
+                headers: { 'Authorization': `Bearer ${token}` }
+            }).catch(() => {});
+        }
         setUser(null);
         setToken(null);
         localStorage.removeItem('token');